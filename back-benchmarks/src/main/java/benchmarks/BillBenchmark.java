@@ -0,0 +1,32 @@
+package benchmarks;
+
+import model.entities.Bill;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillBenchmark {
+
+    @Param({"1250.00", "27345.50"})
+    public String sum;
+
+    private Bill bill;
+
+    @Setup
+    public void setUp() {
+        bill = new Bill();
+        bill.setSum(new BigDecimal(sum));
+    }
+
+    @Benchmark
+    public Integer bonusPoints() {
+        return bill.getBonusPoints();
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import model.entities.Comment;
+import model.entities.Employee;
+import model.entities.Feedback;
+import model.entities.JournalLog;
+import model.enums.Positions;
+import model.enums.TableNumber;
+import model.enums.TableStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// синтетические данные для бенчмарков; генератор с фиксированным seed, чтобы прогоны были сравнимы
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Employee employee(long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setPositions(Positions.waiter);
+        employee.setName("Иван");
+        employee.setSecondName("Петров");
+        employee.setPatronymic("Сергеевич");
+        employee.setBirthDate(LocalDate.of(1990, 5, 17));
+        return employee;
+    }
+
+    static JournalLog journalLog(long id) {
+        JournalLog journalLog = new JournalLog();
+        journalLog.setId(id);
+        journalLog.setEmployee(employee(id % 10 + 1));
+        journalLog.setTableNumber(TableNumber.values()[(int) (id % TableNumber.values().length)]);
+        journalLog.setTableStatus(TableStatus.occupied);
+        journalLog.setTime(OffsetDateTime.parse("2024-11-29T19:30:00+03:00").plusMinutes(id));
+        return journalLog;
+    }
+
+    static Feedback feedback(long id) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setBody("Всё понравилось, спасибо официанту");
+
+        Feedback feedback = new Feedback();
+        feedback.setId(id);
+        feedback.setTime(OffsetDateTime.parse("2024-11-29T22:10:00+03:00").plusMinutes(id));
+        feedback.setJournalLog(journalLog(id));
+        feedback.setRating((short) (id % 5 + 1));
+        feedback.setComment(comment);
+        feedback.setTipAmount(new BigDecimal("250.00"));
+        return feedback;
+    }
+
+    // цены блюд scale 2, как в dish.cost
+    static List<BigDecimal> prices(int size) {
+        Random random = new Random(42);
+        List<BigDecimal> prices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            prices.add(BigDecimal.valueOf(5_000 + random.nextInt(500_000), 2));
+        }
+        return prices;
+    }
+
+    static List<Short> ratings(int size) {
+        Random random = new Random(42);
+        List<Short> ratings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ratings.add((short) (1 + random.nextInt(5)));
+        }
+        return ratings;
+    }
+}
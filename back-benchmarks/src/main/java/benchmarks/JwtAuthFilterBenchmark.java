@@ -0,0 +1,85 @@
+package benchmarks;
+
+import API.filters.JwtAuthFilter;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+import org.openjdk.jmh.annotations.*;
+import utils.JwtUtil;
+import utils.TokenCache;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+// полный проход фильтра с валидным токеном: разбор заголовка, проверка токена, подмена SecurityContext.
+// filterValidToken - повторный токен из TokenCache, filterValidTokenUncached - с проверкой подписи HMAC256
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private final JwtAuthFilter filter = new JwtAuthFilter();
+
+    private RequestStub request;
+
+    @Setup
+    public void setUp() {
+        request = new RequestStub("order/get-all", "Bearer " + JwtUtil.generateToken(1L, "waiter"));
+    }
+
+    @Benchmark
+    public SecurityContext filterValidToken() throws IOException {
+        filter.filter(request.context);
+        if (request.aborted) {
+            throw new IllegalStateException("Токен не прошел проверку");
+        }
+        return request.securityContext;
+    }
+
+    @Benchmark
+    public SecurityContext filterValidTokenUncached() throws IOException {
+        TokenCache.INSTANCE.clear();
+        return filterValidToken();
+    }
+
+    // ContainerRequestContext и UriInfo через Proxy: фильтру нужны только путь, заголовок и SecurityContext
+    private static class RequestStub {
+
+        private final ContainerRequestContext context;
+        private SecurityContext securityContext;
+        private boolean aborted;
+
+        private RequestStub(String path, String authorization) {
+            UriInfo uriInfo = (UriInfo) Proxy.newProxyInstance(
+                    UriInfo.class.getClassLoader(),
+                    new Class<?>[]{UriInfo.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getPath" -> path;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+
+            securityContext = new JwtAuthFilter.EmployeeSecurityContext(0L, "", false);
+            context = (ContainerRequestContext) Proxy.newProxyInstance(
+                    ContainerRequestContext.class.getClassLoader(),
+                    new Class<?>[]{ContainerRequestContext.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getUriInfo" -> uriInfo;
+                        case "getHeaderString" -> "Authorization".equals(args[0]) ? authorization : null;
+                        case "getSecurityContext" -> securityContext;
+                        case "setSecurityContext" -> {
+                            securityContext = (SecurityContext) args[0];
+                            yield null;
+                        }
+                        case "abortWith" -> {
+                            aborted = true;
+                            yield null;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
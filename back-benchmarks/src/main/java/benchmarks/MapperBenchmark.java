@@ -0,0 +1,39 @@
+package benchmarks;
+
+import dto.FeedbackResponseData;
+import dto.JournalLogResponseData;
+import mappers.FeedbackMapper;
+import mappers.JournalLogMapper;
+import model.entities.Feedback;
+import model.entities.JournalLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private JournalLog journalLog;
+    private Feedback feedback;
+
+    @Setup
+    public void setUp() {
+        journalLog = Fixtures.journalLog(7);
+        feedback = Fixtures.feedback(7);
+    }
+
+    @Benchmark
+    public JournalLogResponseData journalLogToDto() {
+        return JournalLogMapper.toDto(journalLog);
+    }
+
+    @Benchmark
+    public FeedbackResponseData feedbackToDto() {
+        return FeedbackMapper.toDto(feedback);
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import dto.reports.ReportTotals;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ReportTotals.sum, которым ReportService склеивает части отчета, и средний рейтинг ReportTotals.getRating
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportMathBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<ReportTotals> parts;
+
+    @Setup
+    public void setUp() {
+        List<BigDecimal> prices = Fixtures.prices(size);
+        List<Short> ratings = Fixtures.ratings(size);
+        parts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            parts.add(new ReportTotals(3, prices.get(i), prices.get(size - 1 - i), 1, 1,
+                    ratings.get(i), 1, List.of()));
+        }
+    }
+
+    // рейтинг сотрудника в отчете так, как его считает ReportService: сумма частей и ReportTotals.getRating
+    @Benchmark
+    public Double rating() {
+        return ReportTotals.sum(parts).getRating();
+    }
+
+    @Benchmark
+    public ReportTotals reportTotalsSum() {
+        return ReportTotals.sum(parts);
+    }
+}
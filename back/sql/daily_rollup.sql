@@ -0,0 +1,17 @@
+-- таблица итогов для отчетов (model.entities.DailyRollup), выполнить один раз до пересборки итогов:
+-- psql -d <db> -f sql/daily_rollup.sql
+CREATE TABLE IF NOT EXISTS daily_rollup (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    day                date           NOT NULL,
+    -- без внешнего ключа, чтобы итоги не мешали удалению сотрудника
+    id_employee        bigint         NOT NULL,
+    orders_amount      bigint         NOT NULL DEFAULT 0,
+    orders_sum         numeric(14, 2) NOT NULL DEFAULT 0,
+    prime_cost_sum     numeric(14, 2) NOT NULL DEFAULT 0,
+    paid_orders_amount bigint         NOT NULL DEFAULT 0,
+    table_amount       bigint         NOT NULL DEFAULT 0,
+    rating_sum         bigint         NOT NULL DEFAULT 0,
+    rating_count       bigint         NOT NULL DEFAULT 0,
+    -- на него опирается ON CONFLICT в DailyRollupDAO
+    CONSTRAINT daily_rollup_day_employee_uk UNIQUE (day, id_employee)
+);
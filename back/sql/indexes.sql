@@ -0,0 +1,17 @@
+-- индексы, объявленные в @Table(indexes = ...) сущностей: схема не генерируется Hibernate,
+-- поэтому их нужно создать вручную (повторный запуск безопасен):
+-- psql -d <db> -f sql/indexes.sql
+-- CONCURRENTLY не блокирует запись в таблицы; psql выполняет каждую команду вне транзакции, как ему нужно.
+-- Если построение прервалось, невалидный индекс остается - его надо удалить (DROP INDEX) и запустить скрипт снова
+
+-- лента кухни/бара (OrderDAO.findFeed): принятые и приготовленные заказы по времени
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_order_status_time_idx ON orders (order_status, time);
+
+-- keyset-страницы заказов (/order/get-all) от новых к старым
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_time_id_idx ON orders (time, id);
+
+-- последняя запись журнала по каждому столу (JournalDAO.findLastForAllTables)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS journal_log_table_number_id_idx ON journal_log (table_number, id);
+
+-- keyset-страницы и выгрузка отзывов (/feedback/get-all, /feedback/stream-all)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS feedback_time_id_idx ON feedback (time, id);
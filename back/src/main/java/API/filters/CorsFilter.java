@@ -55,7 +55,7 @@ public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilt
         } else {
             responseContext.getHeaders().putSingle("Access-Control-Allow-Origin", "*");
         }
-        responseContext.getHeaders().putSingle("Access-Control-Expose-Headers", "Location, X-Total-Count");
+        responseContext.getHeaders().putSingle("Access-Control-Expose-Headers", "Location, X-Total-Count, X-Next-Cursor, Server-Timing");
     }
 }
 
@@ -5,24 +5,31 @@ import jakarta.annotation.Priority;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.ext.Provider;
 import lombok.Getter;
+import utils.CurrentEmployee;
 import utils.JwtUtil;
+import utils.TokenCache;
 
 import java.io.IOException;
 import java.security.Principal;
 
 @Provider
 @Priority(Priorities.AUTHENTICATION)
-public class JwtAuthFilter implements ContainerRequestFilter {
+public class JwtAuthFilter implements ContainerRequestFilter, ContainerResponseFilter {
 
     @Override
     public void filter(ContainerRequestContext ctx) throws IOException {
+        CurrentEmployee.clear();
         String path = ctx.getUriInfo().getPath();
 
-        if (path.contains("feedback") || path.contains("auth/login")) {
+        // /metrics проверяет свой metrics.token сам (MetricsResource)
+        if (path.contains("feedback") || path.contains("auth/login")
+                || path.equals("metrics") || path.equals("/metrics")) {
             return;
         }
 
@@ -36,10 +43,18 @@ public class JwtAuthFilter implements ContainerRequestFilter {
         String token = authHeader.substring("Bearer ".length());
 
         try {
-            DecodedJWT jwt = JwtUtil.verify(token);
-
-            Long employeeId = Long.valueOf(jwt.getSubject());
-            String position = jwt.getClaim("position").asString();
+            TokenCache.VerifiedToken verified = TokenCache.INSTANCE.get(token);
+            if (verified == null) {
+                DecodedJWT jwt = JwtUtil.verify(token);
+                verified = TokenCache.INSTANCE.put(token,
+                        Long.valueOf(jwt.getSubject()),
+                        jwt.getClaim("position").asString(),
+                        jwt.getExpiresAt());
+            }
+
+            Long employeeId = verified.getEmployeeId();
+            String position = verified.getPosition();
+            CurrentEmployee.set(employeeId);
 
             SecurityContext original = ctx.getSecurityContext();
             ctx.setSecurityContext(new EmployeeSecurityContext(
@@ -54,6 +69,11 @@ public class JwtAuthFilter implements ContainerRequestFilter {
         }
     }
 
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        CurrentEmployee.clear();
+    }
+
     private void abort(ContainerRequestContext ctx, String message) {
         ctx.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(message).build());
     }
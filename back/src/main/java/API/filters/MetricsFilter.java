@@ -0,0 +1,54 @@
+package API.filters;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import utils.RouteMetrics;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+// метрики по методу ресурса, который обработал запрос. Фильтр стоит раньше JwtAuthFilter,
+// поэтому отказы 401 тоже попадают в статистику маршрута.
+// Для потоковых ответов (экспорт, SSE) время считается до отправки заголовков
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String ROUTE_PROPERTY = MetricsFilter.class.getName() + ".route";
+    private static final String START_PROPERTY = MetricsFilter.class.getName() + ".start";
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        RouteMetrics.Route route = RouteMetrics.INSTANCE.route(routeName());
+        route.start();
+        requestContext.setProperty(ROUTE_PROPERTY, route);
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object route = requestContext.getProperty(ROUTE_PROPERTY);
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (route instanceof RouteMetrics.Route metricsRoute && start instanceof Long startNanos) {
+            metricsRoute.finish(responseContext.getStatus(), System.nanoTime() - startNanos);
+        }
+    }
+
+    private String routeName() {
+        Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        if (method == null) {
+            return "unmatched";
+        }
+        return resourceInfo.getResourceClass().getSimpleName() + "." + method.getName();
+    }
+}
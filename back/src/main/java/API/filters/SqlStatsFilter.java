@@ -0,0 +1,64 @@
+package API.filters;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+import utils.AppConfig;
+import utils.SqlStats;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// количество SQL-запросов и время в БД на каждый HTTP-запрос: заголовок Server-Timing и лог.
+// Для потоковых ответов (экспорт, SSE) учитывается только то, что выполнилось до отправки заголовков
+@Provider
+@Priority(Priorities.HEADER_DECORATOR)
+public class SqlStatsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger LOG = Logger.getLogger(SqlStatsFilter.class.getName());
+
+    private static final String STATS_PROPERTY = SqlStatsFilter.class.getName() + ".stats";
+    private static final String START_PROPERTY = SqlStatsFilter.class.getName() + ".start";
+
+    private final int warnQueries = AppConfig.getInt("sql.stats.warnQueries", 20);
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+        requestContext.setProperty(STATS_PROPERTY, SqlStats.begin());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object stats = requestContext.getProperty(STATS_PROPERTY);
+        Object start = requestContext.getProperty(START_PROPERTY);
+        SqlStats.end();
+        if (!(stats instanceof SqlStats sqlStats) || !(start instanceof Long startNanos)) {
+            return;
+        }
+
+        long statements = sqlStats.getStatements();
+        double dbMillis = sqlStats.getMillis();
+        double totalMillis = (System.nanoTime() - startNanos) / 1_000_000.0;
+
+        responseContext.getHeaders().add("Server-Timing", String.format(Locale.ROOT,
+                "db;desc=\"%d queries\";dur=%.1f, app;dur=%.1f", statements, dbMillis, totalMillis));
+
+        Level level = warnQueries > 0 && statements > warnQueries ? Level.WARNING : Level.FINE;
+        if (LOG.isLoggable(level)) {
+            LOG.log(level, String.format(Locale.ROOT, "%s /%s: %d SQL, db %.1f ms, total %.1f ms, status %d",
+                    requestContext.getMethod(),
+                    requestContext.getUriInfo().getPath(),
+                    statements,
+                    dbMillis,
+                    totalMillis,
+                    responseContext.getStatus()));
+        }
+    }
+}
@@ -9,7 +9,6 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import model.entities.Bill;
-import model.entities.Employee;
 import model.entities.JournalLog;
 import services.BillService;
 import services.JournalService;
@@ -31,10 +30,10 @@ public class BillResource {
     @Path("/create")
     public Response createBill(@Context SecurityContext ctx, @Valid BillCreationRequest request) {
 
-        Employee employee = journalService.getEmployee(request.getTableNumber());
+        Long ownerId = journalService.getEmployeeId(request.getTableNumber());
 
         if (!ctx.isUserInRole("admin")
-                && !Long.valueOf(ctx.getUserPrincipal().getName()).equals(employee.getId()) ) {
+                && !Long.valueOf(ctx.getUserPrincipal().getName()).equals(ownerId) ) {
             return Response.status(Response.Status.FORBIDDEN)
                     .entity("Попытка создать счет на стол другого сотрудника").build();
         }
@@ -81,10 +80,10 @@ public class BillResource {
     @Path("/pay/{id}")
     public Response payBill(@Context SecurityContext ctx, @PathParam("id") Long id) {
 
-        Employee employee = journalService.getEmployee(billService.getTableNumberForBill(id));
+        Long ownerId = journalService.getEmployeeId(billService.getTableNumberForBill(id));
 
         if (!ctx.isUserInRole("admin")
-                && !Long.valueOf(ctx.getUserPrincipal().getName()).equals(employee.getId()) ) {
+                && !Long.valueOf(ctx.getUserPrincipal().getName()).equals(ownerId) ) {
             return Response.status(Response.Status.FORBIDDEN)
                     .entity("Попытка отметить отмеченным счет другого сотрудника").build();
         }
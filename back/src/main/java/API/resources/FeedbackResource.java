@@ -2,19 +2,31 @@ package API.resources;
 
 import dto.FeedbackCreationRequest;
 import dto.FeedbackResponseData;
+import dto.PageData;
 import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
 import mappers.FeedbackMapper;
 import model.entities.Feedback;
 import services.FeedbackService;
 import validation.EmployeeIdValidator;
 import validation.FeedbackValidation;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,6 +35,8 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 public class FeedbackResource {
 
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
     @Inject
     FeedbackService feedbackService;
 
@@ -52,21 +66,74 @@ public class FeedbackResource {
 
     @GET
     @Path("/get-all")
-    public Response getAll(@Context SecurityContext ctx) {
+    public Response getAll(@Context SecurityContext ctx,
+                           @QueryParam("limit") Integer limit,
+                           @QueryParam("cursor") String cursor,
+                           @QueryParam("from") String fromStr,
+                           @QueryParam("to") String toStr) {
         if (!ctx.isUserInRole("admin")) {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
         List<FeedbackResponseData> feedbacksData = new ArrayList<>();
+        PageData<Feedback> page;
         try {
-            List<Feedback> feedbacks = feedbackService.getAll();
-            for (Feedback feedback : feedbacks) {
+            LocalDate from = fromStr == null ? null : LocalDate.parse(fromStr);
+            LocalDate to = toStr == null ? null : LocalDate.parse(toStr);
+            page = feedbackService.getPage(from, to, cursor, limit);
+            for (Feedback feedback : page.getItems()) {
                 feedbacksData.add(FeedbackMapper.toDto(feedback));
             }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (Exception e){
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
         }
-        return Response.ok(feedbacksData).build();
+        Response.ResponseBuilder rb = Response.ok(feedbacksData)
+                .header("X-Total-Count", page.getTotalCount());
+        if (page.getNextCursor() != null) {
+            rb.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return rb.build();
+    }
+
+    // весь период одним JSON-массивом, DTO пишутся в ответ по мере чтения строк из БД
+    @GET
+    @Path("/stream-all")
+    public Response streamAll(@Context SecurityContext ctx,
+                              @QueryParam("from") String fromStr,
+                              @QueryParam("to") String toStr) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = fromStr == null ? null : LocalDate.parse(fromStr);
+            to = toStr == null ? null : LocalDate.parse(toStr);
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+
+        StreamingOutput body = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write('[');
+            boolean[] first = {true};
+            feedbackService.streamAll(from, to, feedback -> {
+                try {
+                    if (!first[0]) {
+                        writer.write(',');
+                    }
+                    first[0] = false;
+                    writer.write(JSONB.toJson(FeedbackMapper.toDto(feedback)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write(']');
+            writer.flush();
+        };
+        return Response.ok(body).build();
     }
 
     @GET
@@ -7,9 +7,12 @@ import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import mappers.EmployeeMapper;
 import mappers.JournalLogMapper;
 import model.entities.Employee;
@@ -17,6 +20,7 @@ import model.entities.JournalLog;
 import model.enums.TableNumber;
 import model.enums.TableStatus;
 import services.JournalService;
+import services.TableEventBroadcaster;
 import validation.EmployeeIdValidator;
 
 import java.util.ArrayList;
@@ -34,6 +38,9 @@ public class JournalResource {
     @Inject
     EmployeeIdValidator employeeIdValidator;
 
+    @Inject
+    TableEventBroadcaster tableEventBroadcaster;
+
     @POST
     @Path("/make-record")
     public Response createRecord(@Context SecurityContext ctx,
@@ -47,10 +54,10 @@ public class JournalResource {
             return Response.status(Response.Status.BAD_REQUEST).entity(valid).build();
         }
 
-        Employee employee = journalService.getEmployee(journalData.getTableNumber());
-        if (employee != null && !ctx.isUserInRole("admin")
+        Long ownerId = journalService.getEmployeeId(journalData.getTableNumber());
+        if (ownerId != null && !ctx.isUserInRole("admin")
                 && journalData.getTableStatus() != TableStatus.occupied
-                && !employee.getId().equals(journalData.getEmployeeId())) {
+                && !ownerId.equals(journalData.getEmployeeId())) {
             return Response.status(Response.Status.UNAUTHORIZED)
                     .entity("Попытка изменить статус чужого стола").build();
         }
@@ -122,6 +129,37 @@ public class JournalResource {
         return Response.status(Response.Status.OK).entity(tableStatuses).build();
     }
 
+    @GET
+    @Path("/get-tables-snapshot")
+    public Response getTablesSnapshot(@Context SecurityContext ctx) {
+        if (ctx.getUserPrincipal() == null) {
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        List<JournalLogResponseData> snapshot = new ArrayList<>();
+        try {
+            for (JournalLog journalLog : journalService.getTablesSnapshot()) {
+                snapshot.add(JournalLogMapper.toDto(journalLog));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        }
+        return Response.status(Response.Status.OK).entity(snapshot).build();
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void stream(@Context SecurityContext ctx,
+                       @Context SseEventSink eventSink,
+                       @Context Sse sse,
+                       @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) Long lastEventId) {
+        if (ctx.getUserPrincipal() == null) {
+            throw new WebApplicationException(Response.Status.UNAUTHORIZED);
+        }
+        tableEventBroadcaster.subscribe(sse, eventSink, lastEventId);
+    }
+
     @POST
     @Path("/reset-employee")
     public Response resetEmployee(@Context SecurityContext ctx,
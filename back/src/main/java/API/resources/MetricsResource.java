@@ -0,0 +1,54 @@
+package API.resources;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Response;
+import mappers.MetricsMapper;
+import services.ReportCache;
+import utils.AppConfig;
+import utils.PoolMetrics;
+import utils.PrometheusWriter;
+import utils.RouteMetrics;
+import utils.TokenCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// метрики для Prometheus. JWT тут не подходит (токены живут сутки), поэтому /metrics пропускается
+// JwtAuthFilter, а доступ закрывается отдельным metrics.token. Пока токен не задан, эндпоинта как бы нет (404)
+@Path("/metrics")
+public class MetricsResource {
+
+    private static final String TOKEN = AppConfig.getString("metrics.token", "");
+
+    @Inject
+    ReportCache reportCache;
+
+    @GET
+    public Response getMetrics(@HeaderParam("Authorization") String authorization) {
+        if (TOKEN.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (!isTokenValid(authorization)) {
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        try {
+            String body = MetricsMapper.toPrometheus(RouteMetrics.INSTANCE, PoolMetrics.INSTANCE, reportCache,
+                    TokenCache.INSTANCE);
+            return Response.ok(body, PrometheusWriter.CONTENT_TYPE).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private static boolean isTokenValid(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        byte[] given = authorization.substring("Bearer ".length()).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(given, TOKEN.getBytes(StandardCharsets.UTF_8));
+    }
+}
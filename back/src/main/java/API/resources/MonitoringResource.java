@@ -0,0 +1,108 @@
+package API.resources;
+
+import dto.monitoring.PoolStatsData;
+import dto.monitoring.ReportCacheStatsData;
+import dto.monitoring.SlowQueryData;
+import dto.monitoring.TokenCacheStatsData;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import mappers.MonitoringMapper;
+import services.ReportCache;
+import utils.PoolMetrics;
+import utils.SlowQueryLog;
+import utils.TokenCache;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Path("/monitoring")
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+public class MonitoringResource {
+
+    @Inject
+    ReportCache reportCache;
+
+    @GET
+    @Path("/pool")
+    public Response getPoolStats(@Context SecurityContext ctx) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        PoolStatsData stats;
+        try {
+            stats = MonitoringMapper.toDto(PoolMetrics.INSTANCE);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        }
+        return Response.ok(stats).build();
+    }
+
+    @GET
+    @Path("/report-cache")
+    public Response getReportCacheStats(@Context SecurityContext ctx) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        ReportCacheStatsData stats = MonitoringMapper.toDto(reportCache);
+        return Response.ok(stats).build();
+    }
+
+    // без date сбрасывается весь кэш, с date - только части отчетов, в которые входит этот день
+    @DELETE
+    @Path("/report-cache")
+    public Response evictReportCache(@Context SecurityContext ctx, @QueryParam("date") String dateStr) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        if (dateStr == null || dateStr.isBlank()) {
+            reportCache.evictAll();
+            return Response.noContent().build();
+        }
+        try {
+            reportCache.evictDay(LocalDate.parse(dateStr));
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        return Response.noContent().build();
+    }
+
+    @GET
+    @Path("/token-cache")
+    public Response getTokenCacheStats(@Context SecurityContext ctx) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        TokenCacheStatsData stats = MonitoringMapper.toDto(TokenCache.INSTANCE);
+        return Response.ok(stats).build();
+    }
+
+    // последние медленные SQL, новые первыми; пустой список, если журнал выключен (db.slowQuery.thresholdMs)
+    @GET
+    @Path("/slow-queries")
+    public Response getSlowQueries(@Context SecurityContext ctx) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        List<SlowQueryData> queries = SlowQueryLog.INSTANCE.snapshot().stream()
+                .map(MonitoringMapper::toDto)
+                .toList();
+        return Response.ok(queries).build();
+    }
+
+    @DELETE
+    @Path("/slow-queries")
+    public Response clearSlowQueries(@Context SecurityContext ctx) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        SlowQueryLog.INSTANCE.clear();
+        return Response.noContent().build();
+    }
+}
@@ -1,6 +1,7 @@
 package API.resources;
 
 import dto.OrderCreationData;
+import dto.PageData;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -9,13 +10,18 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
-import model.entities.Employee;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import model.entities.Order;
 import model.enums.OrderStatus;
+import model.enums.Station;
 import model.enums.TableNumber;
 import services.JournalService;
 import services.OrderService;
+import services.WaiterNotificationBroadcaster;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +36,9 @@ public class OrderResource {
     @Inject
     JournalService journalService;
 
+    @Inject
+    WaiterNotificationBroadcaster waiterNotificationBroadcaster;
+
     @GET
     @Path("/get-orders-by-table/{tableNumber}")
     public Response getOrdersByJournal(@PathParam("tableNumber") TableNumber tableNumber) {
@@ -141,9 +150,47 @@ public class OrderResource {
 
     @GET
     @Path("/get-all")
-    public Response getAll(@Context SecurityContext ctx) {
+    public Response getAll(@Context SecurityContext ctx,
+                           @QueryParam("limit") Integer limit,
+                           @QueryParam("cursor") String cursor,
+                           @QueryParam("from") String fromStr,
+                           @QueryParam("to") String toStr,
+                           @QueryParam("status") OrderStatus status,
+                           @QueryParam("table") TableNumber table) {
         try {
-            List<Order> orders = orderService.getAll();
+            LocalDate from = fromStr == null ? null : LocalDate.parse(fromStr);
+            LocalDate to = toStr == null ? null : LocalDate.parse(toStr);
+
+            PageData<Order> page = orderService.getPage(from, to, status, table, cursor, limit);
+            Response.ResponseBuilder rb = Response.ok(page.getItems());
+            if (page.getTotalCount() != null) {
+                rb.header("X-Total-Count", page.getTotalCount());
+            }
+            if (page.getNextCursor() != null) {
+                rb.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return rb.build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GET
+    @Path("/get-feed/{station}")
+    public Response getFeed(@Context SecurityContext ctx, @PathParam("station") Station station) {
+        if (ctx.getUserPrincipal() == null) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        if (station == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("station must be kitchen or bar")
+                    .build();
+        }
+        try {
+            List<Order> orders = orderService.getFeed(station);
             return Response.ok(orders).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -151,6 +198,18 @@ public class OrderResource {
         }
     }
 
+    @GET
+    @Path("/notifications")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void notifications(@Context SecurityContext ctx,
+                              @Context SseEventSink eventSink,
+                              @Context Sse sse) {
+        if (ctx.getUserPrincipal() == null) {
+            throw new WebApplicationException(Response.Status.UNAUTHORIZED);
+        }
+        waiterNotificationBroadcaster.subscribe(sse, Long.valueOf(ctx.getUserPrincipal().getName()), eventSink);
+    }
+
     @POST
     @Path("/change-status/{id}")
     public Response changeStatus(@Context SecurityContext ctx,
@@ -190,11 +249,9 @@ public class OrderResource {
     }
 
     public boolean canCreateOrder(Long employeeId, TableNumber tableNumber) {
-        Employee employee = journalService.getEmployee(tableNumber);
-        System.out.println(employeeId);
-        if (employee != null) {
-            System.out.println(employee.getId());
-            return employee.getId().equals(employeeId);
+        Long ownerId = journalService.getEmployeeId(tableNumber);
+        if (ownerId != null) {
+            return ownerId.equals(employeeId);
         }
         return true;
     }
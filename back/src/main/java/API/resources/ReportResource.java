@@ -3,17 +3,34 @@ package API.resources;
 import dto.EmployeeResponseData;
 import dto.reports.EmployeeReportData;
 import dto.reports.MainReportData;
+import dto.reports.SeriesPointData;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import model.enums.ExportFormat;
+import model.enums.ExportType;
+import model.enums.ReportBucket;
 import services.ReportService;
+import utils.ExportWriter;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 
 @Path("/report")
 @Consumes(MediaType.APPLICATION_JSON)
@@ -34,8 +51,7 @@ public class ReportResource {
             MainReportData report = reportService.mainReport(date);
             return Response.ok(report).build();
         } catch (Exception e) {
-            e.printStackTrace();
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            return errorResponse(e);
         }
     }
 
@@ -50,8 +66,7 @@ public class ReportResource {
             Map<Long, EmployeeReportData> report = reportService.employeeAllReport(date);
             return Response.ok(report).build();
         } catch (Exception e) {
-            e.printStackTrace();
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+            return errorResponse(e);
         }
     }
 
@@ -66,9 +81,110 @@ public class ReportResource {
         try {
             EmployeeReportData report = reportService.employeeReport(id, date);
             return Response.ok(report).build();
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+
+    @GET
+    @Path("/series")
+    public Response getSeries(@Context SecurityContext ctx,
+                              @QueryParam("from") String fromStr,
+                              @QueryParam("to") String toStr,
+                              @QueryParam("bucket") @DefaultValue("day") String bucketStr) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        try {
+            LocalDate from = fromStr == null ? null : LocalDate.parse(fromStr);
+            LocalDate to = toStr == null ? null : LocalDate.parse(toStr);
+            ReportBucket bucket = ReportBucket.valueOf(bucketStr);
+
+            List<SeriesPointData> series = reportService.series(from, to, bucket);
+            return Response.ok(series).build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
         } catch (Exception e) {
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    // выгрузка строк без буферизации: CSV или NDJSON, при gzip=true - сжатый файл
+    @GET
+    @Path("/export/{type}")
+    @Produces({"text/csv", "application/x-ndjson", "application/gzip"})
+    public Response export(@Context SecurityContext ctx,
+                           @PathParam("type") String typeStr,
+                           @QueryParam("from") String fromStr,
+                           @QueryParam("to") String toStr,
+                           @QueryParam("format") @DefaultValue("csv") String formatStr,
+                           @QueryParam("gzip") @DefaultValue("false") boolean gzip) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        ExportType type;
+        ExportFormat format;
+        LocalDate from;
+        LocalDate to;
+        try {
+            type = ExportType.valueOf(typeStr);
+            format = ExportFormat.valueOf(formatStr);
+            from = fromStr == null ? null : LocalDate.parse(fromStr);
+            to = toStr == null ? null : LocalDate.parse(toStr);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+
+        List<String> columns = reportService.exportColumns(type);
+        StreamingOutput body = output -> {
+            OutputStream out = gzip ? new GZIPOutputStream(output, 8192) : output;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            ExportWriter exportWriter = ExportWriter.create(format, writer, columns);
+            reportService.export(type, from, to, row -> {
+                try {
+                    exportWriter.writeRow(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+
+        String fileName = type.name() + "." + format.name() + (gzip ? ".gz" : "");
+        String contentType = gzip ? "application/gzip"
+                : format == ExportFormat.csv ? "text/csv; charset=UTF-8" : "application/x-ndjson; charset=UTF-8";
+        return Response.ok(body, contentType)
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .build();
+    }
+
+    @POST
+    @Path("/rollup/rebuild")
+    public Response rebuildRollups(@Context SecurityContext ctx) {
+        if (!ctx.isUserInRole("admin")) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        try {
+            int rows = reportService.rebuildRollups();
+            return Response.ok(Map.of("rows", rows)).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // отчет, не успевший посчитаться за report.timeoutMs или не поместившийся в очередь подзапросов, - 503,
+    // остальное - 500
+    private Response errorResponse(Exception e) {
+        if (e instanceof RejectedExecutionException
+                || e instanceof IllegalStateException && e.getCause() instanceof TimeoutException) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(e.getMessage()).build();
+        }
+        e.printStackTrace();
+        return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+    }
 }
@@ -1,25 +1,26 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import model.entities.Bill;
 import model.enums.BillStatus;
 import model.enums.TableNumber;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 @ApplicationScoped
+@JfrRecorded
 public class BillDAO {
 
+    @Inject
     private EntityManager em;
 
-    public BillDAO() {
-        this.em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    DailyRollupDAO dailyRollupDAO;
 
     //счет ч/з бд ф-ю, возвращает id счета
     public Long createBillForTableGuest(TableNumber tableNumber, Short guestNumber) {
-        EntityManager em = JPAUtil.getEntityManager();
         EntityTransaction tx = em.getTransaction();
         try {
             tx.begin();
@@ -47,13 +48,11 @@ public class BillDAO {
     }
 
     public Bill findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.find(Bill.class, id);
     }
 
     //оплата закрытого счета
     public boolean markAsPaid(Long billId) {
-        EntityManager em = JPAUtil.getEntityManager();
         EntityTransaction tx = em.getTransaction();
         try {
             tx.begin();
@@ -65,6 +64,9 @@ public class BillDAO {
                     .setParameter("open", BillStatus.open)
                     .setParameter("id", billId)
                     .executeUpdate();
+            if (updated > 0) {
+                dailyRollupDAO.addPaidBill(billId);
+            }
 
             tx.commit();
             return updated > 0;
@@ -78,7 +80,6 @@ public class BillDAO {
 
     //для контроля номера оплаченного стола: вытаскивает номер стола по номеру счета
     public TableNumber findTableNumberByBillId(Long billId) {
-        EntityManager em = JPAUtil.getEntityManager();
         String sql = """
                 SELECT jl.table_number
                 FROM bill b
@@ -105,7 +106,6 @@ public class BillDAO {
 
 
     public long countOpenBillsForTable(TableNumber tableNumber) {
-        EntityManager em = JPAUtil.getEntityManager();
         String sql = """
         SELECT COALESCE(COUNT(DISTINCT b.id), 0)
         FROM bill b
@@ -122,7 +122,6 @@ public class BillDAO {
     }
 
     public long countOrdersWithoutBillForTable(TableNumber tableNumber) {
-        EntityManager em = JPAUtil.getEntityManager();
         String sql = """
         SELECT COALESCE(COUNT(*), 0)
         FROM orders o
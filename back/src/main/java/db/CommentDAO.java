@@ -1,16 +1,15 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import model.entities.Comment;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 @ApplicationScoped
+@JfrRecorded
 public class CommentDAO {
 
-    private final EntityManager em;
-
-    public CommentDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    private EntityManager em;
 }
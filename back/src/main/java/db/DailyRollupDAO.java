@@ -0,0 +1,168 @@
+package db;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import utils.JfrRecorded;
+
+import java.time.ZoneId;
+
+// инкрементальное ведение daily_rollup: методы add* вызываются внутри транзакции
+// изменяющего DAO, поэтому итоги коммитятся вместе с самими данными
+@ApplicationScoped
+@JfrRecorded
+public class DailyRollupDAO {
+
+    @Inject
+    private EntityManager em;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO daily_rollup (day, id_employee, orders_amount, orders_sum, prime_cost_sum,
+                                      paid_orders_amount, table_amount, rating_sum, rating_count)
+            %s
+            ON CONFLICT (day, id_employee) DO UPDATE SET
+                orders_amount      = daily_rollup.orders_amount + EXCLUDED.orders_amount,
+                orders_sum         = daily_rollup.orders_sum + EXCLUDED.orders_sum,
+                prime_cost_sum     = daily_rollup.prime_cost_sum + EXCLUDED.prime_cost_sum,
+                paid_orders_amount = daily_rollup.paid_orders_amount + EXCLUDED.paid_orders_amount,
+                table_amount       = daily_rollup.table_amount + EXCLUDED.table_amount,
+                rating_sum         = daily_rollup.rating_sum + EXCLUDED.rating_sum,
+                rating_count       = daily_rollup.rating_count + EXCLUDED.rating_count
+            """;
+
+    // источники итогов, %s - условие отбора строк, :sign - 1 или -1; день считается в часовом поясе
+    // приложения, как и в ReportService
+    private static final String ORDERS_SOURCE = """
+            SELECT CAST(o.time AT TIME ZONE :zone AS date) AS day,
+                   j.id_employee                           AS id_employee,
+                   COUNT(*) * :sign                        AS orders_amount,
+                   COALESCE(SUM(d.cost), 0) * :sign        AS orders_sum,
+                   COALESCE(SUM(d.prime_cost), 0) * :sign  AS prime_cost_sum,
+                   0 AS paid_orders_amount, 0 AS table_amount, 0 AS rating_sum, 0 AS rating_count
+            FROM orders o
+            JOIN journal_log j ON j.id = o.id_journal_log
+            JOIN dish d ON d.id = o.id_dish
+            WHERE %s
+            GROUP BY 1, 2
+            """;
+
+    private static final String PAID_ORDERS_SOURCE = """
+            SELECT CAST(b.time AT TIME ZONE :zone AS date), j.id_employee,
+                   0, 0, 0, COUNT(*) * :sign, 0, 0, 0
+            FROM bill b
+            JOIN orders_in_bill oib ON oib.id_bill = b.id
+            JOIN orders o ON o.id = oib.id_order
+            JOIN journal_log j ON j.id = o.id_journal_log
+            WHERE b.bill_status = 'paid'
+              AND %s
+            GROUP BY 1, 2
+            """;
+
+    private static final String PAID_TABLES_SOURCE = """
+            SELECT CAST(j.time AT TIME ZONE :zone AS date), j.id_employee,
+                   0, 0, 0, 0, COUNT(*) * :sign, 0, 0
+            FROM journal_log j
+            WHERE j.table_status = 'paid'
+              AND %s
+            GROUP BY 1, 2
+            """;
+
+    private static final String FEEDBACK_SOURCE = """
+            SELECT CAST(f.time AT TIME ZONE :zone AS date), j.id_employee,
+                   0, 0, 0, 0, 0, SUM(f.rating) * :sign, COUNT(*) * :sign
+            FROM feedback f
+            JOIN journal_log j ON j.id = f.id_journal_log
+            WHERE %s
+            GROUP BY 1, 2
+            """;
+
+    // sign = 1 при создании заказа, -1 при удалении (вызывать до удаления строки)
+    public void addOrder(Long orderId, int sign) {
+        upsert(ORDERS_SOURCE.formatted("o.id = :id"), sign)
+                .setParameter("id", orderId)
+                .executeUpdate();
+    }
+
+    // вызывать после перевода счета в paid
+    public void addPaidBill(Long billId) {
+        upsert(PAID_ORDERS_SOURCE.formatted("b.id = :id"), 1)
+                .setParameter("id", billId)
+                .executeUpdate();
+    }
+
+    // учитывается только запись со статусом paid, остальные игнорируются
+    public void addJournalEntry(Long journalLogId) {
+        upsert(PAID_TABLES_SOURCE.formatted("j.id = :id"), 1)
+                .setParameter("id", journalLogId)
+                .executeUpdate();
+    }
+
+    public void addFeedback(Long feedbackId) {
+        upsert(FEEDBACK_SOURCE.formatted("f.id = :id"), 1)
+                .setParameter("id", feedbackId)
+                .executeUpdate();
+    }
+
+    // все, что засчитано сотруднику записи журнала: заказы, оплаченные заказы, оплату стола и отзывы.
+    // При смене сотрудника вызывается с -1 до обновления записи и с 1 после
+    public void addJournalLog(Long journalLogId, int sign) {
+        em.createNativeQuery(UPSERT_SQL.formatted(aggregated(
+                        ORDERS_SOURCE.formatted("o.id_journal_log = :id"),
+                        PAID_ORDERS_SOURCE.formatted("o.id_journal_log = :id"),
+                        PAID_TABLES_SOURCE.formatted("j.id = :id"),
+                        FEEDBACK_SOURCE.formatted("f.id_journal_log = :id"))))
+                .setParameter("zone", ZoneId.systemDefault().getId())
+                .setParameter("sign", sign)
+                .setParameter("id", journalLogId)
+                .executeUpdate();
+    }
+
+    // полная пересборка итогов из orders, bill, journal_log и feedback;
+    // блокировка не дает инкрементальным обновлениям вклиниться между удалением и вставкой
+    public int rebuild() {
+        try {
+            em.getTransaction().begin();
+
+            em.createNativeQuery("LOCK TABLE daily_rollup IN EXCLUSIVE MODE").executeUpdate();
+            em.createNativeQuery("DELETE FROM daily_rollup").executeUpdate();
+            int rows = em.createNativeQuery("""
+                            INSERT INTO daily_rollup (day, id_employee, orders_amount, orders_sum, prime_cost_sum,
+                                                      paid_orders_amount, table_amount, rating_sum, rating_count)
+                            """ + aggregated(
+                                    ORDERS_SOURCE.formatted("TRUE"),
+                                    PAID_ORDERS_SOURCE.formatted("TRUE"),
+                                    PAID_TABLES_SOURCE.formatted("TRUE"),
+                                    FEEDBACK_SOURCE.formatted("TRUE")))
+                    .setParameter("zone", ZoneId.systemDefault().getId())
+                    .setParameter("sign", 1)
+                    .executeUpdate();
+
+            em.getTransaction().commit();
+            return rows;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+
+    private Query upsert(String source, int sign) {
+        return em.createNativeQuery(UPSERT_SQL.formatted(source))
+                .setParameter("zone", ZoneId.systemDefault().getId())
+                .setParameter("sign", sign);
+    }
+
+    // несколько источников в одну строку на (день, сотрудник): ON CONFLICT не может обновить строку дважды
+    private static String aggregated(String... sources) {
+        return """
+                SELECT day, id_employee, SUM(orders_amount), SUM(orders_sum), SUM(prime_cost_sum),
+                       SUM(paid_orders_amount), SUM(table_amount), SUM(rating_sum), SUM(rating_count)
+                FROM (
+                """ + String.join("UNION ALL\n", sources) + """
+                ) src
+                GROUP BY day, id_employee
+                """;
+    }
+}
@@ -1,27 +1,25 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import model.entities.Dish;
 import model.entities.DishIngredient;
 import model.entities.Ingredient;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @ApplicationScoped
+@JfrRecorded
 public class DishDAO {
 
-    private final EntityManager em;
-
-    public DishDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    private EntityManager em;
 
     public List<Dish> getAll() {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                 "SELECT d FROM Dish d",
                 Dish.class
@@ -29,7 +27,6 @@ public class DishDAO {
     }
 
     public Dish create(Dish dish) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -45,7 +42,6 @@ public class DishDAO {
     }
 
     public void delete(Dish dish) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -63,7 +59,6 @@ public class DishDAO {
     }
 
     public void modify(Dish dish) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -78,7 +73,6 @@ public class DishDAO {
     }
 
     public Dish findByName(String name) {
-        EntityManager em = JPAUtil.getEntityManager();
         try {
             List<Dish> results = em.createQuery(
                             "SELECT i FROM Dish i WHERE i.name = :name",
@@ -95,12 +89,10 @@ public class DishDAO {
     }
 
     public Dish findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.find(Dish.class, id);
     }
 
     public void resetCost(Long id, BigDecimal cost) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
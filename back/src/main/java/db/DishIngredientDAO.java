@@ -1,27 +1,25 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import model.entities.Dish;
 import model.entities.DishIngredient;
 import model.entities.Wallet;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @ApplicationScoped
+@JfrRecorded
 public class DishIngredientDAO {
 
-    private final EntityManager em;
-
-    public DishIngredientDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    private EntityManager em;
 
     public void create(DishIngredient dish) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -36,7 +34,6 @@ public class DishIngredientDAO {
     }
 
     public void delete(DishIngredient dish) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -54,7 +51,6 @@ public class DishIngredientDAO {
     }
 
     public DishIngredient getRecordByIds(Long dishId, Long ingredientId) {
-        EntityManager em = JPAUtil.getEntityManager();
         List<DishIngredient> list = em.createQuery(
                         "SELECT di FROM DishIngredient di " +
                                 "WHERE di.dish.id = :dishId AND di.ingredient.id = :ingredientId",
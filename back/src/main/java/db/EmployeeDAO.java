@@ -7,24 +7,21 @@ import jakarta.persistence.EntityManager;
 import model.entities.Dish;
 import model.entities.Employee;
 import model.entities.Wallet;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 import java.util.List;
 
 @ApplicationScoped
+@JfrRecorded
 public class EmployeeDAO {
 
     @Inject
     WalletDAO walletDAO;
 
-    private final EntityManager em;
-
-    public EmployeeDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    private EntityManager em;
 
     public void save(Employee e) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -39,13 +36,11 @@ public class EmployeeDAO {
     }
 
     public Employee findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.find(Employee.class, id);
     }
 
     // todo доделать удаление
     public void delete(Employee employee) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -64,7 +59,6 @@ public class EmployeeDAO {
     }
 
     public void modify(Employee employee) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -79,7 +73,6 @@ public class EmployeeDAO {
     }
 
     public List<Employee> findAll() {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                 "SELECT e FROM Employee e",
                 Employee.class
@@ -0,0 +1,97 @@
+package db;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import model.enums.ExportType;
+import org.hibernate.jpa.HibernateHints;
+import utils.JfrRecorded;
+
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// выгрузка сырых строк для бухгалтерии: плоские native-запросы без загрузки сущностей,
+// строки читаются курсором БД порциями по fetchSize
+@ApplicationScoped
+@JfrRecorded
+public class ExportDAO {
+
+    @Inject
+    private EntityManager em;
+
+    public List<String> getColumns(ExportType type) {
+        return switch (type) {
+            case orders -> List.of("id", "time", "table_number", "guest_number", "id_dish", "dish_name",
+                    "cost", "prime_cost", "order_status", "id_employee");
+            case bills -> List.of("id", "time", "sum", "bill_status", "guest_number");
+            case journal -> List.of("id", "time", "table_number", "table_status", "id_employee");
+        };
+    }
+
+    // from/to - необязательные границы [from, to); строки идут по возрастанию времени
+    public void scroll(ExportType type, OffsetDateTime from, OffsetDateTime to, int fetchSize,
+                       Consumer<Object[]> consumer) {
+        String alias = switch (type) {
+            case orders -> "o";
+            case bills -> "b";
+            case journal -> "j";
+        };
+        StringBuilder sql = new StringBuilder(switch (type) {
+            case orders -> """
+                    SELECT o.id, o.time, j.table_number, o.guest_number, o.id_dish, d.name,
+                           d.cost, d.prime_cost, o.order_status, j.id_employee
+                    FROM orders o
+                    JOIN dish d ON d.id = o.id_dish
+                    JOIN journal_log j ON j.id = o.id_journal_log
+                    """;
+            case bills -> """
+                    SELECT b.id, b.time, b.sum, b.bill_status, b.guest_number
+                    FROM bill b
+                    """;
+            case journal -> """
+                    SELECT j.id, j.time, j.table_number, j.table_status, j.id_employee
+                    FROM journal_log j
+                    """;
+        });
+        sql.append("WHERE 1 = 1 ");
+        if (from != null) {
+            sql.append("AND ").append(alias).append(".time >= :from ");
+        }
+        if (to != null) {
+            sql.append("AND ").append(alias).append(".time < :to ");
+        }
+        sql.append("ORDER BY ").append(alias).append(".time, ").append(alias).append(".id");
+
+        try {
+            em.getTransaction().begin();
+
+            Query query = em.createNativeQuery(sql.toString())
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true);
+            if (from != null) {
+                query.setParameter("from", from);
+            }
+            if (to != null) {
+                query.setParameter("to", to);
+            }
+
+            try (Stream<?> stream = query.getResultStream()) {
+                Iterator<?> it = stream.iterator();
+                while (it.hasNext()) {
+                    consumer.accept((Object[]) it.next());
+                }
+            }
+
+            em.getTransaction().commit();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+}
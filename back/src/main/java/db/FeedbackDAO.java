@@ -2,35 +2,51 @@ package db;
 
 import dto.FeedbackCreationRequest;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import model.entities.Feedback;
 import model.entities.Ingredient;
-import utils.JPAUtil;
+import org.hibernate.jpa.HibernateHints;
+import utils.CursorUtil;
+import utils.JfrRecorded;
 
+import java.time.OffsetDateTime;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @ApplicationScoped
+@JfrRecorded
 public class FeedbackDAO {
 
-    private final EntityManager em;
+    @Inject
+    private EntityManager em;
 
-    public FeedbackDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    DailyRollupDAO dailyRollupDAO;
 
     public void insertNew(FeedbackCreationRequest feedbackData) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
 
-            em.createNativeQuery("SELECT create_feedback_by_table(CAST(:tableNumber AS table_number), :rating, :tip, :comment)")
+            // ф-я не возвращает id отзыва: берем currval последовательности в том же запросе после ее вызова.
+            // currval относится к этой сессии и видит вставку и из вложенного блока ф-ии (подтранзакции)
+            Long feedbackId = ((Number) em.createNativeQuery("""
+                            WITH created AS (
+                                SELECT create_feedback_by_table(CAST(:tableNumber AS table_number), :rating, :tip, :comment)
+                            )
+                            SELECT currval(pg_get_serial_sequence('feedback', 'id')) FROM created
+                            """)
                     .setParameter("tableNumber", feedbackData.tableNumber.name())
                     .setParameter("rating", feedbackData.rating)
                     .setParameter("tip", feedbackData.tipAmount)
                     .setParameter("comment", feedbackData.comment)
-                    .getSingleResult();
+                    .getSingleResult()).longValue();
+            dailyRollupDAO.addFeedback(feedbackId);
 
             em.getTransaction().commit();
         } catch (Exception e) {
@@ -41,16 +57,97 @@ public class FeedbackDAO {
         }
     }
 
-    public List<Feedback> getAll() {
-        EntityManager em = JPAUtil.getEntityManager();
-        return em.createQuery(
-                "SELECT f FROM Feedback f",
-                Feedback.class
-        ).getResultList();
+    // страница отзывов от новых к старым, keyset по (time, id); берем limit + 1, чтобы понять, есть ли продолжение
+    public List<Feedback> getPage(OffsetDateTime from, OffsetDateTime to, CursorUtil.Cursor cursor, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT f FROM Feedback f " +
+                        "JOIN FETCH f.journalLog j " +
+                        "JOIN FETCH j.employee " +
+                        "LEFT JOIN FETCH f.comment " +
+                        "WHERE 1 = 1 ");
+        appendPeriod(jpql, from, to);
+        if (cursor != null) {
+            jpql.append("AND (f.time < :cursorTime OR (f.time = :cursorTime AND f.id < :cursorId)) ");
+        }
+        jpql.append("ORDER BY f.time DESC, f.id DESC");
+
+        TypedQuery<Feedback> query = em.createQuery(jpql.toString(), Feedback.class);
+        setPeriod(query, from, to);
+        if (cursor != null) {
+            query.setParameter("cursorTime", cursor.getTime());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        return query.setMaxResults(limit + 1).getResultList();
+    }
+
+    public long count(OffsetDateTime from, OffsetDateTime to) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(f) FROM Feedback f WHERE 1 = 1 ");
+        appendPeriod(jpql, from, to);
+
+        TypedQuery<Long> query = em.createQuery(jpql.toString(), Long.class);
+        setPeriod(query, from, to);
+        return query.getSingleResult();
+    }
+
+    // построчный проход курсором БД: в памяти держим не больше fetchSize отзывов.
+    // postgres отдает строки порциями только внутри транзакции, поэтому она открывается на время прохода
+    public void scroll(OffsetDateTime from, OffsetDateTime to, int fetchSize, Consumer<Feedback> consumer) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT f FROM Feedback f " +
+                        "JOIN FETCH f.journalLog j " +
+                        "JOIN FETCH j.employee " +
+                        "LEFT JOIN FETCH f.comment " +
+                        "WHERE 1 = 1 ");
+        appendPeriod(jpql, from, to);
+        jpql.append("ORDER BY f.time DESC, f.id DESC");
+
+        try {
+            em.getTransaction().begin();
+
+            TypedQuery<Feedback> query = em.createQuery(jpql.toString(), Feedback.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true);
+            setPeriod(query, from, to);
+
+            int rows = 0;
+            try (Stream<Feedback> stream = query.getResultStream()) {
+                Iterator<Feedback> it = stream.iterator();
+                while (it.hasNext()) {
+                    consumer.accept(it.next());
+                    if (++rows % fetchSize == 0) {
+                        em.clear();
+                    }
+                }
+            }
+
+            em.getTransaction().commit();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+
+    private void appendPeriod(StringBuilder jpql, OffsetDateTime from, OffsetDateTime to) {
+        if (from != null) {
+            jpql.append("AND f.time >= :from ");
+        }
+        if (to != null) {
+            jpql.append("AND f.time < :to ");
+        }
+    }
+
+    private void setPeriod(TypedQuery<?> query, OffsetDateTime from, OffsetDateTime to) {
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
     }
 
     public List<Feedback> getForEmployee(Long id){
-        EntityManager em = JPAUtil.getEntityManager();
         List<Feedback> result = em.createQuery(
                         "SELECT f FROM Feedback f " +
                                 "JOIN f.journalLog j " +
@@ -1,26 +1,24 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import model.entities.Dish;
 import model.entities.Ingredient;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @ApplicationScoped
+@JfrRecorded
 public class IngredientDAO {
 
-    private final EntityManager em;
-
-    public IngredientDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    private EntityManager em;
 
     public List<Ingredient> getForDish(Long dishId) {
-        EntityManager em = JPAUtil.getEntityManager();
         TypedQuery<Ingredient> q = em.createQuery(
                 "SELECT di.ingredient FROM DishIngredient di " +
                         "JOIN di.dish d " +
@@ -33,7 +31,6 @@ public class IngredientDAO {
     }
 
     public Ingredient findByName(String name) {
-        EntityManager em = JPAUtil.getEntityManager();
         List<Ingredient> results = em.createQuery(
                         "SELECT i FROM Ingredient i WHERE i.name = :name",
                         Ingredient.class
@@ -46,7 +43,6 @@ public class IngredientDAO {
     }
 
     public void create(Ingredient ingredient) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -61,7 +57,6 @@ public class IngredientDAO {
     }
 
     public void modify(Ingredient ingredient) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -76,7 +71,6 @@ public class IngredientDAO {
     }
 
     public void delete(Ingredient ingredient) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -94,7 +88,6 @@ public class IngredientDAO {
     }
 
     public List<Ingredient> getAll() {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                 "SELECT i FROM Ingredient i",
                 Ingredient.class
@@ -102,12 +95,10 @@ public class IngredientDAO {
     }
 
     public Ingredient findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.find(Ingredient.class, id);
     }
 
     public void resetAmount(Long id, BigDecimal amount) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -127,7 +118,6 @@ public class IngredientDAO {
     }
 
     public void resetCost(Long id, BigDecimal cost) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -1,27 +1,31 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import model.entities.Employee;
 import model.entities.JournalLog;
 import model.enums.TableNumber;
 import model.enums.TableStatus;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@JfrRecorded
 public class JournalDAO {
 
-    private final EntityManager em;
+    @Inject
+    private EntityManager em;
 
-    public JournalDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    TableStateRegistry tableStateRegistry;
+
+    @Inject
+    DailyRollupDAO dailyRollupDAO;
 
     public JournalLog findLastByTableNumber(TableNumber tableNumber) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                         "select j from JournalLog j " +
                                 "where j.tableNumber = :tableNumber " +
@@ -34,8 +38,30 @@ public class JournalDAO {
                 .orElse(null);
     }
 
+    // последняя запись по каждому столу вместе с сотрудником, одним запросом
+    public List<JournalLog> findLastForAllTables() {
+        return em.createQuery(
+                        "select j from JournalLog j " +
+                                "join fetch j.employee " +
+                                "where j.id in (" +
+                                "  select max(j2.id) from JournalLog j2 " +
+                                "  group by j2.tableNumber" +
+                                ")", JournalLog.class)
+                .getResultList();
+    }
+
+    public List<JournalLog> findAfterId(Long journalLogId, int limit) {
+        return em.createQuery(
+                        "select j from JournalLog j " +
+                                "join fetch j.employee " +
+                                "where j.id > :journalLogId " +
+                                "order by j.id", JournalLog.class)
+                .setParameter("journalLogId", journalLogId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public JournalLog findLastOccupiedByTableNumber(TableNumber tableNumber) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                         "select j from JournalLog j " +
                                 "where j.tableNumber = :tableNumber " +
@@ -52,8 +78,6 @@ public class JournalDAO {
     }
 
     public JournalLog create(Long id, TableNumber tableNumber, TableStatus tableStatus) {
-        EntityManager em = JPAUtil.getEntityManager();
-
         try {
             em.getTransaction().begin();
 
@@ -68,10 +92,14 @@ public class JournalDAO {
                     .setParameter("tableNumber", tableNumber.name())
                     .setParameter("tableStatus", tableStatus.name())
                     .getSingleResult()).longValue();
+            if (tableStatus == TableStatus.paid) {
+                dailyRollupDAO.addJournalEntry(journalLogId);
+            }
 
             JournalLog journalLog = em.find(JournalLog.class, journalLogId);
 
             em.getTransaction().commit();
+            tableStateRegistry.update(journalLog);
             return journalLog;
 
         } catch (Exception e) {
@@ -79,13 +107,10 @@ public class JournalDAO {
                 em.getTransaction().rollback();
             }
             throw e;
-        } finally {
-            em.close();
         }
     }
 
     public List<JournalLog> getLastForHours(Integer hours) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                 "select j from JournalLog j " +
                         "where j.time >= :fromTime " +
@@ -96,19 +121,36 @@ public class JournalDAO {
     }
 
     public JournalLog findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.find(JournalLog.class, id);
     }
 
-    public void resetEmployee(Employee employee, Long journalLogId) {
-        EntityManager em = JPAUtil.getEntityManager();
-        em.createQuery(
-                        "update JournalLog j " +
-                                "set j.employee = :employeeId " +
-                                "where j.id = :logId")
-                .setParameter("employeeId", employee)
-                .setParameter("logId", journalLogId)
-                .executeUpdate();
+    public JournalLog getReference(Long id) {
+        return em.getReference(JournalLog.class, id);
+    }
+
+    public void resetEmployee(Employee employee, TableNumber tableNumber, Long journalLogId) {
+        try {
+            em.getTransaction().begin();
+
+            // итоги записи переносятся со старого сотрудника на нового в той же транзакции
+            dailyRollupDAO.addJournalLog(journalLogId, -1);
+            em.createQuery(
+                            "update JournalLog j " +
+                                    "set j.employee = :employeeId " +
+                                    "where j.id = :logId")
+                    .setParameter("employeeId", employee)
+                    .setParameter("logId", journalLogId)
+                    .executeUpdate();
+            dailyRollupDAO.addJournalLog(journalLogId, 1);
+
+            em.getTransaction().commit();
+            tableStateRegistry.updateEmployee(tableNumber, journalLogId, employee.getId());
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
     }
 
 }
@@ -1,28 +1,34 @@
 package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import model.entities.Employee;
 import model.entities.Order;
 import model.enums.OrderStatus;
-import utils.JPAUtil;
+import model.enums.TableNumber;
+import utils.CursorUtil;
+import utils.JfrRecorded;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@JfrRecorded
 public class OrderDAO {
 
-    private final EntityManager em;
+    @Inject
+    private EntityManager em;
 
-    public OrderDAO() {
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    DailyRollupDAO dailyRollupDAO;
 
     public void create(Order order) {
-        EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
             em.persist(order);
+            dailyRollupDAO.addOrder(order.getId(), 1);
             em.getTransaction().commit();
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -33,16 +39,15 @@ public class OrderDAO {
     }
 
     public Order findById(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.find(Order.class, id);
     }
 
     public void delete(Order order) {
-        EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
             Order managed = em.find(Order.class, order.getId());
             if (managed != null) {
+                dailyRollupDAO.addOrder(managed.getId(), -1);
                 em.remove(managed);
             }
             em.getTransaction().commit();
@@ -55,7 +60,6 @@ public class OrderDAO {
     }
 
     public void modify(Order order) {
-        EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
             em.merge(order);
@@ -68,26 +72,99 @@ public class OrderDAO {
         }
     }
 
-    public List<Order> findAll() {
-        EntityManager em = JPAUtil.getEntityManager();
-        try {
-            em.getTransaction().begin();
-            List<Order> orders = em.createQuery(
-                    "SELECT o FROM Order o",
-                    Order.class
-            ).getResultList();
-            em.getTransaction().commit();
-            return orders;
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
-            throw e;
+    // живая очередь кухни или бара: только принятые и приготовленные заказы
+    public List<Order> findFeed(boolean isKitchen) {
+        return em.createQuery(
+                        "SELECT o FROM Order o " +
+                                "JOIN FETCH o.dish d " +
+                                "JOIN FETCH o.journalLog j " +
+                                "JOIN FETCH j.employee " +
+                                "WHERE d.isKitchen = :isKitchen " +
+                                "AND o.orderStatus IN :statuses " +
+                                "ORDER BY o.time, o.id",
+                        Order.class
+                )
+                .setParameter("isKitchen", isKitchen)
+                .setParameter("statuses", List.of(OrderStatus.accepted, OrderStatus.cooked))
+                .getResultList();
+    }
+
+    // страница заказов от новых к старым, keyset по (time, id); берем limit + 1, чтобы понять, есть ли продолжение
+    public List<Order> findPage(OffsetDateTime from, OffsetDateTime to, OrderStatus status, TableNumber table,
+                                CursorUtil.Cursor cursor, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT o FROM Order o " +
+                        "JOIN FETCH o.dish " +
+                        "JOIN FETCH o.journalLog j " +
+                        "JOIN FETCH j.employee " +
+                        "WHERE 1 = 1 ");
+        appendFilters(jpql, from, to, status, table);
+        if (cursor != null) {
+            jpql.append("AND (o.time < :cursorTime OR (o.time = :cursorTime AND o.id < :cursorId)) ");
+        }
+        jpql.append("ORDER BY o.time DESC, o.id DESC");
+
+        TypedQuery<Order> query = em.createQuery(jpql.toString(), Order.class);
+        setFilters(query, from, to, status, table);
+        if (cursor != null) {
+            query.setParameter("cursorTime", cursor.getTime());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        return query.setMaxResults(limit + 1).getResultList();
+    }
+
+    public long count(OffsetDateTime from, OffsetDateTime to, OrderStatus status, TableNumber table) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT COUNT(o) FROM Order o JOIN o.journalLog j WHERE 1 = 1 ");
+        appendFilters(jpql, from, to, status, table);
+
+        TypedQuery<Long> query = em.createQuery(jpql.toString(), Long.class);
+        setFilters(query, from, to, status, table);
+        return query.getSingleResult();
+    }
+
+    // оценка числа строк из статистики планировщика, без прохода по таблице
+    public long estimateCount() {
+        Number n = (Number) em.createNativeQuery(
+                        "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'orders'::regclass"
+                )
+                .getSingleResult();
+        return n.longValue();
+    }
+
+    private void appendFilters(StringBuilder jpql, OffsetDateTime from, OffsetDateTime to,
+                               OrderStatus status, TableNumber table) {
+        if (from != null) {
+            jpql.append("AND o.time >= :from ");
+        }
+        if (to != null) {
+            jpql.append("AND o.time < :to ");
+        }
+        if (status != null) {
+            jpql.append("AND o.orderStatus = :status ");
+        }
+        if (table != null) {
+            jpql.append("AND j.tableNumber = :table ");
+        }
+    }
+
+    private void setFilters(TypedQuery<?> query, OffsetDateTime from, OffsetDateTime to,
+                            OrderStatus status, TableNumber table) {
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (table != null) {
+            query.setParameter("table", table);
         }
     }
 
     public List<Order> findByJournalLog(Long journalLogId) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em
                 .createQuery(
                         "SELECT o FROM Order o WHERE o.journalLog.id = :journalLogId",
@@ -1,101 +1,206 @@
 package db;
 
+import dto.reports.ReportTotals;
+import dto.reports.SeriesPointData;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
-import model.entities.Bill;
-import model.entities.Feedback;
-import model.entities.JournalLog;
-import model.entities.Order;
-import model.enums.TableStatus;
-import utils.JPAUtil;
+import jakarta.persistence.TypedQuery;
+import model.enums.ReportBucket;
+import org.hibernate.jpa.SpecHints;
+import utils.AppConfig;
+import utils.JfrRecorded;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
-import java.util.Collections;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+// отчеты читаются из daily_rollup (см. DailyRollupDAO), сырые таблицы нужны только для комментариев.
+// Диапазон дней [fromDay, toDay), toDay == null - без верхней границы
 @ApplicationScoped
+@JfrRecorded
 public class ReportDAO {
 
-    public List<Order> getOrdersFromDate(OffsetDateTime fromDateTime) {
-        EntityManager em = JPAUtil.getEntityManager();
-        return em.createQuery(
-                        "select f from Order f " +
-                                "where f.time >= :fromTime " +
-                                "order by f.time asc",
-                        Order.class
-                )
-                .setParameter("fromTime", fromDateTime)
-                .getResultList();
+    // подзапросы отчетов выполняются параллельно (ReportExecutor), по таймауту отчета БД прерывает и сам запрос
+    private static final int QUERY_TIMEOUT_MS = AppConfig.getInt("report.timeoutMs", 10000);
+
+    @Inject
+    private EntityManager em;
+
+    // итоги по всем сотрудникам за диапазон дней (без комментариев)
+    public ReportTotals getTotals(LocalDate fromDay, LocalDate toDay) {
+        TypedQuery<Object[]> query = em.createQuery(
+                "select coalesce(sum(r.ordersAmount), 0), " +
+                        "coalesce(sum(r.ordersSum), 0), " +
+                        "coalesce(sum(r.primeCostSum), 0), " +
+                        "coalesce(sum(r.paidOrdersAmount), 0), " +
+                        "coalesce(sum(r.tableAmount), 0), " +
+                        "coalesce(sum(r.ratingSum), 0), " +
+                        "coalesce(sum(r.ratingCount), 0) " +
+                        "from DailyRollup r " +
+                        "where r.day >= :fromDay" +
+                        (toDay != null ? " and r.day < :toDay" : ""),
+                Object[].class
+        ).setParameter("fromDay", fromDay)
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, QUERY_TIMEOUT_MS);
+        if (toDay != null) {
+            query.setParameter("toDay", toDay);
+        }
+        return toTotals(query.getSingleResult(), List.of());
     }
 
-    public List<Bill> getBillsFromDate(OffsetDateTime fromDateTime) {
-        EntityManager em = JPAUtil.getEntityManager();
-        return em.createQuery(
-                        "select f from Bill f " +
-                                "where f.time >= :fromTime " +
-                                "order by f.time asc",
-                        Bill.class
-                )
-                .setParameter("fromTime", fromDateTime)
-                .getResultList();
+    // итоги по сотрудникам (или по одному, если employeeId != null) одним сгруппированным запросом, без комментариев;
+    // сотрудники без активности тоже попадают в результат
+    public Map<Long, ReportTotals> getEmployeeTotals(LocalDate fromDay, LocalDate toDay, Long employeeId) {
+        TypedQuery<Object[]> query = em.createQuery(
+                "select e.id, " +
+                        "coalesce(sum(r.ordersAmount), 0), " +
+                        "coalesce(sum(r.ordersSum), 0), " +
+                        "coalesce(sum(r.primeCostSum), 0), " +
+                        "coalesce(sum(r.paidOrdersAmount), 0), " +
+                        "coalesce(sum(r.tableAmount), 0), " +
+                        "coalesce(sum(r.ratingSum), 0), " +
+                        "coalesce(sum(r.ratingCount), 0) " +
+                        "from Employee e " +
+                        "left join DailyRollup r on r.employeeId = e.id and r.day >= :fromDay" +
+                        (toDay != null ? " and r.day < :toDay " : " ") +
+                        (employeeId != null ? "where e.id = :employeeId " : "") +
+                        "group by e.id",
+                Object[].class
+        ).setParameter("fromDay", fromDay)
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, QUERY_TIMEOUT_MS);
+        if (toDay != null) {
+            query.setParameter("toDay", toDay);
+        }
+        if (employeeId != null) {
+            query.setParameter("employeeId", employeeId);
+        }
+
+        Map<Long, ReportTotals> result = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            Object[] totals = new Object[row.length - 1];
+            System.arraycopy(row, 1, totals, 0, totals.length);
+            result.put((Long) row[0], toTotals(totals, List.of()));
+        }
+        return result;
     }
 
-    public Integer getOrdersAmountInBill(Bill bill) {
-        EntityManager em = JPAUtil.getEntityManager();
-        Number result = (Number) em.createNativeQuery(
-                        "SELECT COUNT(*) FROM orders_in_bill WHERE id_bill = :billId"
-                )
-                .setParameter("billId", bill.getId())
-                .getSingleResult();
+    // комментарии из отзывов за диапазон одной выборкой, новые первыми
+    public Map<Long, List<String>> getCommentsByEmployee(LocalDate fromDay, LocalDate toDay, Long employeeId) {
+        ZoneId zone = ZoneId.systemDefault();
+        TypedQuery<Object[]> query = em.createQuery(
+                "select j.employee.id, c.body from Feedback f " +
+                        "join f.journalLog j " +
+                        "join f.comment c " +
+                        "where f.time >= :fromTime " +
+                        (toDay != null ? "and f.time < :toTime " : "") +
+                        (employeeId != null ? "and j.employee.id = :employeeId " : "") +
+                        "order by f.time desc",
+                Object[].class
+        ).setParameter("fromTime", fromDay.atStartOfDay(zone).toOffsetDateTime())
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, QUERY_TIMEOUT_MS);
+        if (toDay != null) {
+            query.setParameter("toTime", toDay.atStartOfDay(zone).toOffsetDateTime());
+        }
+        if (employeeId != null) {
+            query.setParameter("employeeId", employeeId);
+        }
 
-        return result.intValue();
+        Map<Long, List<String>> result = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            result.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return result;
     }
 
-    public List<Order> getOrdersFromDateAndEmployee(OffsetDateTime fromDateTime, Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
-        return em.createQuery(
-                        "select f from Order f " +
-                                "join f.journalLog j " +
-                                "where f.time >= :fromTime " +
-                                "and j.employee.id = :employeeId " +
-                                "order by f.time asc",
-                        Order.class
-                )
-                .setParameter("fromTime", fromDateTime)
-                .setParameter("employeeId", id)
+    // ряд по интервалам [fromTime, toTime) одним запросом: пустые интервалы тоже попадают в ответ
+    public List<SeriesPointData> getSeries(OffsetDateTime fromTime, OffsetDateTime toTime, ReportBucket bucket) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery("""
+                        WITH buckets AS (
+                            SELECT generate_series(
+                                       date_trunc(:bucket, CAST(:fromTime AS timestamptz) AT TIME ZONE :zone),
+                                       (CAST(:toTime AS timestamptz) AT TIME ZONE :zone) - INTERVAL '1 microsecond',
+                                       CAST(:step AS interval)
+                                   ) AS bucket
+                        ), ord AS (
+                            SELECT date_trunc(:bucket, o.time AT TIME ZONE :zone) AS bucket,
+                                   COUNT(*)        AS orders_amount,
+                                   SUM(d.cost)       AS revenue,
+                                   SUM(d.prime_cost) AS prime_cost
+                            FROM orders o
+                            JOIN dish d ON d.id = o.id_dish
+                            WHERE o.time >= :fromTime
+                              AND o.time < :toTime
+                            GROUP BY 1
+                        ), paid AS (
+                            SELECT date_trunc(:bucket, b.time AT TIME ZONE :zone) AS bucket,
+                                   COUNT(*) AS paid_bills_amount
+                            FROM bill b
+                            WHERE b.bill_status = 'paid'
+                              AND b.time >= :fromTime
+                              AND b.time < :toTime
+                            GROUP BY 1
+                        )
+                        SELECT buckets.bucket,
+                               COALESCE(ord.orders_amount, 0),
+                               COALESCE(ord.revenue, 0),
+                               COALESCE(ord.prime_cost, 0),
+                               COALESCE(paid.paid_bills_amount, 0)
+                        FROM buckets
+                        LEFT JOIN ord ON ord.bucket = buckets.bucket
+                        LEFT JOIN paid ON paid.bucket = buckets.bucket
+                        ORDER BY buckets.bucket
+                        """)
+                .setParameter("bucket", bucket.name())
+                .setParameter("step", "1 " + bucket.name())
+                .setParameter("zone", ZoneId.systemDefault().getId())
+                .setParameter("fromTime", fromTime)
+                .setParameter("toTime", toTime)
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, QUERY_TIMEOUT_MS)
                 .getResultList();
 
+        List<SeriesPointData> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new SeriesPointData(
+                    toLocalDateTime(row[0]),
+                    ((Number) row[1]).intValue(),
+                    toBigDecimal(row[2]),
+                    toBigDecimal(row[3]),
+                    ((Number) row[4]).intValue()
+            ));
+        }
+        return result;
     }
 
-    public Integer getTableAmountForEmployee(OffsetDateTime fromDateTime, Long employeeId) {
-        EntityManager em = JPAUtil.getEntityManager();
-        Number result = (Number) em.createQuery(
-                        "select COUNT(j) from JournalLog j " +
-                                "where j.employee.id = :employeeId " +
-                                "and j.tableStatus = :status " +
-                                "and j.time > :fromTime"
-                )
-                .setParameter("employeeId", employeeId)
-                .setParameter("status", TableStatus.paid)
-                .setParameter("fromTime", fromDateTime)
-                .getSingleResult();
-        return result.intValue();
+    private LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) value;
     }
 
-    public List<Feedback> getFeedbackForEmployee(OffsetDateTime date, Long id){
-        EntityManager em = JPAUtil.getEntityManager();
-        List<Feedback> result = em.createQuery(
-                        "SELECT f FROM Feedback f " +
-                                "JOIN f.journalLog j " +
-                                "WHERE j.employee.id = :employeeId " +
-                                "AND f.time > :fromTime " +
-                                "ORDER BY f.time DESC",
-                        Feedback.class
-                )
-                .setParameter("employeeId", id)
-                .setParameter("fromTime", date)
-                .getResultList();
+    private ReportTotals toTotals(Object[] row, List<String> comments) {
+        return new ReportTotals(
+                ((Number) row[0]).longValue(),
+                toBigDecimal(row[1]),
+                toBigDecimal(row[2]),
+                ((Number) row[3]).longValue(),
+                ((Number) row[4]).longValue(),
+                ((Number) row[5]).longValue(),
+                ((Number) row[6]).longValue(),
+                comments
+        );
+    }
 
-        return result == null ? Collections.emptyList() : result;
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal bd ? bd : new BigDecimal(value.toString());
     }
 }
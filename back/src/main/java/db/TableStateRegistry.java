@@ -0,0 +1,122 @@
+package db;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.context.control.RequestContextController;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import model.entities.JournalLog;
+import model.enums.TableNumber;
+import model.enums.TableStatus;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// текущее состояние столов в памяти: заполняется из journal_log при старте,
+// дальше обновляется JournalDAO после каждой закоммиченной записи
+@ApplicationScoped
+public class TableStateRegistry {
+
+    @Inject
+    JournalDAO journalDAO;
+
+    @Inject
+    RequestContextController requestContextController;
+
+    private final AtomicReferenceArray<TableState> states =
+            new AtomicReferenceArray<>(TableNumber.values().length);
+
+    private volatile boolean loaded;
+
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // БД может быть недоступна при старте - тогда загрузимся при первом обращении
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized void rebuild() {
+        boolean activated = requestContextController.activate();
+        try {
+            List<JournalLog> lastLogs = journalDAO.findLastForAllTables();
+            for (int i = 0; i < states.length(); i++) {
+                states.set(i, null);
+            }
+            for (JournalLog journalLog : lastLogs) {
+                update(journalLog);
+            }
+            loaded = true;
+        } finally {
+            if (activated) {
+                requestContextController.deactivate();
+            }
+        }
+    }
+
+    public TableState get(TableNumber tableNumber) {
+        if (!loaded) {
+            rebuild();
+        }
+        return states.get(tableNumber.ordinal());
+    }
+
+    public TableStatus getStatus(TableNumber tableNumber) {
+        TableState state = get(tableNumber);
+        return state == null ? null : state.getTableStatus();
+    }
+
+    public Map<TableNumber, TableState> snapshot() {
+        Map<TableNumber, TableState> snapshot = new EnumMap<>(TableNumber.class);
+        for (TableNumber tableNumber : TableNumber.values()) {
+            snapshot.put(tableNumber, get(tableNumber));
+        }
+        return snapshot;
+    }
+
+    // записи с меньшим id не затирают более новое состояние, если коммиты пришли не по порядку
+    public void update(JournalLog journalLog) {
+        TableState next = new TableState(
+                journalLog.getId(),
+                journalLog.getTableStatus(),
+                journalLog.getEmployee() != null ? journalLog.getEmployee().getId() : null
+        );
+        int index = journalLog.getTableNumber().ordinal();
+        while (true) {
+            TableState current = states.get(index);
+            if (current != null && current.getJournalLogId() > next.getJournalLogId()) {
+                return;
+            }
+            if (states.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    public void updateEmployee(TableNumber tableNumber, Long journalLogId, Long employeeId) {
+        int index = tableNumber.ordinal();
+        while (true) {
+            TableState current = states.get(index);
+            if (current == null || !current.getJournalLogId().equals(journalLogId)) {
+                return;
+            }
+            TableState next = new TableState(journalLogId, current.getTableStatus(), employeeId);
+            if (states.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TableState {
+        private final Long journalLogId;
+        private final TableStatus tableStatus;
+        private final Long employeeId;
+    }
+}
@@ -2,24 +2,22 @@ package db;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import model.entities.Wallet;
-import utils.JPAUtil;
+import utils.JfrRecorded;
 
 import java.math.BigDecimal;
 
 @ApplicationScoped
+@JfrRecorded
 public class WalletDAO {
 
-    private final EntityManager em;
-
-    public WalletDAO(){
-        em = JPAUtil.getEntityManager();
-    }
+    @Inject
+    private EntityManager em;
 
     public Wallet findByEmployeeId(Long id) {
-        EntityManager em = JPAUtil.getEntityManager();
         return em.createQuery(
                         "SELECT w FROM Wallet w WHERE w.employee.id = :empId",
                         Wallet.class
@@ -30,7 +28,6 @@ public class WalletDAO {
 
     //баланс
     public BigDecimal getBalanceOrNull(Long employeeId) {
-        EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
             Wallet wallet = em.createQuery(
@@ -54,7 +51,6 @@ public class WalletDAO {
 
     //снятие денег
     public void withdrawal(Long employeeId, BigDecimal amount) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -74,7 +70,6 @@ public class WalletDAO {
     }
 
     public void create(Wallet wallet) {
-        EntityManager em = JPAUtil.getEntityManager();
         em.getTransaction();
         try {
             em.getTransaction().begin();
@@ -88,10 +83,13 @@ public class WalletDAO {
         }
     }
 
+    // вызывается и внутри транзакции EmployeeDAO.delete: em общий на запрос, поэтому присоединяемся к ней
     public void deleteWalletByEmployeeId(Long employeeId) {
-        EntityManager em = JPAUtil.getEntityManager();
+        boolean ownTx = !em.getTransaction().isActive();
         try {
-            em.getTransaction().begin();
+            if (ownTx) {
+                em.getTransaction().begin();
+            }
 
             em.createQuery(
                             "DELETE FROM Wallet w WHERE w.employee.id = :employeeId"
@@ -99,14 +97,14 @@ public class WalletDAO {
                     .setParameter("employeeId", employeeId)
                     .executeUpdate();
 
-            em.getTransaction().commit();
+            if (ownTx) {
+                em.getTransaction().commit();
+            }
         } catch (RuntimeException e) {
-            if (em.getTransaction().isActive()) {
+            if (ownTx && em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
             throw e;
-        } finally {
-            em.close();
         }
     }
 
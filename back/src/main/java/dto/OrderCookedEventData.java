@@ -0,0 +1,19 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import model.enums.TableNumber;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCookedEventData {
+    private Long orderId;
+    private Long dishId;
+    private String dishName;
+    private TableNumber tableNumber;
+    private Short guestNumber;
+}
@@ -0,0 +1,19 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import model.enums.TableNumber;
+import model.enums.TableStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableStatusEventData {
+    private Long journalLogId;
+    private TableNumber tableNumber;
+    private TableStatus tableStatus;
+    private Long employeeId;
+}
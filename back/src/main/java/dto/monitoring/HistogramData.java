@@ -0,0 +1,21 @@
+package dto.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramData {
+    Long count;
+    Double sumMillis;
+    Double p50Millis;
+    Double p90Millis;
+    Double p99Millis;
+    Map<String, Long> buckets; // верхняя граница корзины в мс ("+Inf" для последней) -> количество
+}
@@ -0,0 +1,24 @@
+package dto.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatsData {
+    String poolName;
+    Integer activeConnections;
+    Integer idleConnections;
+    Integer totalConnections;
+    Integer pendingThreads;
+    Integer maxConnections;
+    Integer minConnections;
+    Long timeouts;
+    HistogramData acquireTime;
+    HistogramData usageTime;
+    HistogramData creationTime;
+}
@@ -0,0 +1,22 @@
+package dto.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryData {
+    OffsetDateTime time;
+    String caller;
+    Double durationMs;
+    String sql;
+    List<String> params;
+    String plan;
+}
@@ -0,0 +1,17 @@
+package dto.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenCacheStatsData {
+    Long hits;
+    Long misses;
+    Double hitRate;
+    Integer size;
+}
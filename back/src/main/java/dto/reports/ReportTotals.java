@@ -0,0 +1,58 @@
+package dto.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// промежуточные итоги отчета за диапазон дней; складываются без потери точности (рейтинг хранится суммой),
+// из них собираются MainReportData и EmployeeReportData. Экземпляры не меняются - их держит кэш отчетов
+@Getter
+@AllArgsConstructor
+public class ReportTotals {
+
+    private final long ordersAmount;
+    private final BigDecimal ordersSum;
+    private final BigDecimal primeCostSum;
+    private final long paidOrdersAmount;
+    private final long tableAmount;
+    private final long ratingSum;
+    private final long ratingCount;
+    private final List<String> comments;
+
+    public ReportTotals withComments(List<String> newComments) {
+        return new ReportTotals(ordersAmount, ordersSum, primeCostSum, paidOrdersAmount,
+                tableAmount, ratingSum, ratingCount, newComments);
+    }
+
+    // средний рейтинг по отзывам, null - отзывов не было
+    public Double getRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+
+    // сумма частей, комментарии идут в порядке частей
+    public static ReportTotals sum(List<ReportTotals> parts) {
+        long ordersAmount = 0;
+        long paidOrdersAmount = 0;
+        long tableAmount = 0;
+        long ratingSum = 0;
+        long ratingCount = 0;
+        BigDecimal ordersSum = BigDecimal.ZERO;
+        BigDecimal primeCostSum = BigDecimal.ZERO;
+        List<String> comments = new ArrayList<>();
+        for (ReportTotals part : parts) {
+            ordersAmount += part.ordersAmount;
+            ordersSum = ordersSum.add(part.ordersSum);
+            primeCostSum = primeCostSum.add(part.primeCostSum);
+            paidOrdersAmount += part.paidOrdersAmount;
+            tableAmount += part.tableAmount;
+            ratingSum += part.ratingSum;
+            ratingCount += part.ratingCount;
+            comments.addAll(part.comments);
+        }
+        return new ReportTotals(ordersAmount, ordersSum, primeCostSum,
+                paidOrdersAmount, tableAmount, ratingSum, ratingCount, comments);
+    }
+}
@@ -0,0 +1,21 @@
+package dto.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesPointData {
+    LocalDateTime bucketStart; // начало интервала по местному времени
+    Integer ordersAmount;
+    BigDecimal revenue;
+    BigDecimal primeCost;
+    Integer paidBillsAmount;
+}
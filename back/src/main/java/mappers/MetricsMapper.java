@@ -0,0 +1,139 @@
+package mappers;
+
+import services.ReportCache;
+import utils.LatencyHistogram;
+import utils.PoolMetrics;
+import utils.PrometheusWriter;
+import utils.RouteMetrics;
+import utils.TokenCache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MetricsMapper {
+
+    public static String toPrometheus(RouteMetrics routeMetrics, PoolMetrics poolMetrics, ReportCache reportCache,
+                                      TokenCache tokenCache) {
+        PrometheusWriter writer = new PrometheusWriter();
+        writeRoutes(writer, routeMetrics);
+        writeJvm(writer);
+        writePool(writer, poolMetrics);
+        writeReportCache(writer, reportCache);
+        writeTokenCache(writer, tokenCache);
+        return writer.toString();
+    }
+
+    private static void writeRoutes(PrometheusWriter writer, RouteMetrics routeMetrics) {
+        // сортировка только ради стабильного вывода
+        Map<String, RouteMetrics.Route> routes = new TreeMap<>(routeMetrics.getRoutes());
+
+        writer.header("http_server_requests_seconds", "histogram", "Request latency by resource method");
+        routes.forEach((name, route) ->
+                writer.histogram("http_server_requests_seconds", route.getLatency(), "route", name));
+
+        writer.header("http_server_responses_total", "counter", "Responses by resource method and status code");
+        routes.forEach((name, route) -> {
+            Map<Integer, LongAdder> statuses = new TreeMap<>(route.getStatuses());
+            statuses.forEach((status, count) -> writer.sample("http_server_responses_total", count.sum(),
+                    "route", name, "status", String.valueOf(status)));
+        });
+
+        writer.header("http_server_requests_in_flight", "gauge", "Requests currently being processed");
+        routes.forEach((name, route) ->
+                writer.sample("http_server_requests_in_flight", route.getInFlight(), "route", name));
+    }
+
+    private static void writeJvm(PrometheusWriter writer) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        writer.header("jvm_memory_used_bytes", "gauge", "Used JVM memory");
+        writer.sample("jvm_memory_used_bytes", heap.getUsed(), "area", "heap");
+        writer.sample("jvm_memory_used_bytes", nonHeap.getUsed(), "area", "nonheap");
+        writer.header("jvm_memory_committed_bytes", "gauge", "Committed JVM memory");
+        writer.sample("jvm_memory_committed_bytes", heap.getCommitted(), "area", "heap");
+        writer.sample("jvm_memory_committed_bytes", nonHeap.getCommitted(), "area", "nonheap");
+        writer.header("jvm_memory_max_bytes", "gauge", "Max JVM memory, -1 if undefined");
+        writer.sample("jvm_memory_max_bytes", heap.getMax(), "area", "heap");
+        writer.sample("jvm_memory_max_bytes", nonHeap.getMax(), "area", "nonheap");
+
+        writer.header("jvm_gc_collection_seconds_count", "counter", "GC collections");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            writer.sample("jvm_gc_collection_seconds_count", Math.max(0, gc.getCollectionCount()), "gc", gc.getName());
+        }
+        writer.header("jvm_gc_collection_seconds_sum", "counter", "Time spent in GC");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            writer.sample("jvm_gc_collection_seconds_sum", Math.max(0, gc.getCollectionTime()) / 1000.0, "gc", gc.getName());
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        writer.header("jvm_threads_live", "gauge", "Live threads");
+        writer.sample("jvm_threads_live", threads.getThreadCount());
+        writer.header("jvm_threads_daemon", "gauge", "Live daemon threads");
+        writer.sample("jvm_threads_daemon", threads.getDaemonThreadCount());
+
+        writer.header("process_uptime_seconds", "gauge", "JVM uptime");
+        writer.sample("process_uptime_seconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+    private static void writePool(PrometheusWriter writer, PoolMetrics metrics) {
+        if (metrics == null || !metrics.isStarted()) {
+            return;
+        }
+        String pool = metrics.getPoolName();
+        writer.header("hikaricp_connections_active", "gauge", "Active connections");
+        writer.sample("hikaricp_connections_active", metrics.getActiveConnections(), "pool", pool);
+        writer.header("hikaricp_connections_idle", "gauge", "Idle connections");
+        writer.sample("hikaricp_connections_idle", metrics.getIdleConnections(), "pool", pool);
+        writer.header("hikaricp_connections", "gauge", "Total connections");
+        writer.sample("hikaricp_connections", metrics.getTotalConnections(), "pool", pool);
+        writer.header("hikaricp_connections_pending", "gauge", "Threads waiting for a connection");
+        writer.sample("hikaricp_connections_pending", metrics.getPendingThreads(), "pool", pool);
+        writer.header("hikaricp_connections_max", "gauge", "Max connections");
+        writer.sample("hikaricp_connections_max", metrics.getMaxConnections(), "pool", pool);
+        writer.header("hikaricp_connections_min", "gauge", "Min idle connections");
+        writer.sample("hikaricp_connections_min", metrics.getMinConnections(), "pool", pool);
+        writer.header("hikaricp_connections_timeout_total", "counter", "Connection acquire timeouts");
+        writer.sample("hikaricp_connections_timeout_total", metrics.getTimeouts(), "pool", pool);
+        writePoolHistogram(writer, "hikaricp_connections_acquire_seconds", "Connection acquire time",
+                metrics.getAcquireTime(), pool);
+        writePoolHistogram(writer, "hikaricp_connections_usage_seconds", "Connection usage time",
+                metrics.getUsageTime(), pool);
+        writePoolHistogram(writer, "hikaricp_connections_creation_seconds", "Connection creation time",
+                metrics.getCreationTime(), pool);
+    }
+
+    private static void writePoolHistogram(PrometheusWriter writer, String name, String help,
+                                           LatencyHistogram histogram, String pool) {
+        writer.header(name, "histogram", help);
+        writer.histogram(name, histogram, "pool", pool);
+    }
+
+    private static void writeReportCache(PrometheusWriter writer, ReportCache cache) {
+        if (cache == null) {
+            return;
+        }
+        writer.header("report_cache_hits_total", "counter", "Report cache hits");
+        writer.sample("report_cache_hits_total", cache.getHits());
+        writer.header("report_cache_misses_total", "counter", "Report cache misses");
+        writer.sample("report_cache_misses_total", cache.getMisses());
+        writer.header("report_cache_size", "gauge", "Cached report parts");
+        writer.sample("report_cache_size", cache.getSize());
+    }
+
+    private static void writeTokenCache(PrometheusWriter writer, TokenCache cache) {
+        if (cache == null) {
+            return;
+        }
+        writer.header("auth_token_cache_hits_total", "counter", "Requests authenticated from the verified token cache");
+        writer.sample("auth_token_cache_hits_total", cache.getHits());
+        writer.header("auth_token_cache_misses_total", "counter", "Requests that needed JWT signature verification");
+        writer.sample("auth_token_cache_misses_total", cache.getMisses());
+        writer.header("auth_token_cache_size", "gauge", "Cached verified tokens");
+        writer.sample("auth_token_cache_size", cache.getSize());
+    }
+}
@@ -0,0 +1,97 @@
+package mappers;
+
+import dto.monitoring.HistogramData;
+import dto.monitoring.PoolStatsData;
+import dto.monitoring.ReportCacheStatsData;
+import dto.monitoring.SlowQueryData;
+import dto.monitoring.TokenCacheStatsData;
+import services.ReportCache;
+import utils.LatencyHistogram;
+import utils.PoolMetrics;
+import utils.SlowQueryLog;
+import utils.TokenCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MonitoringMapper {
+
+    public static PoolStatsData toDto(PoolMetrics metrics) {
+        if (metrics == null) return null;
+
+        PoolStatsData dto = new PoolStatsData();
+        dto.setPoolName(metrics.getPoolName());
+        dto.setActiveConnections(metrics.getActiveConnections());
+        dto.setIdleConnections(metrics.getIdleConnections());
+        dto.setTotalConnections(metrics.getTotalConnections());
+        dto.setPendingThreads(metrics.getPendingThreads());
+        dto.setMaxConnections(metrics.getMaxConnections());
+        dto.setMinConnections(metrics.getMinConnections());
+        dto.setTimeouts(metrics.getTimeouts());
+        dto.setAcquireTime(toDto(metrics.getAcquireTime()));
+        dto.setUsageTime(toDto(metrics.getUsageTime()));
+        dto.setCreationTime(toDto(metrics.getCreationTime()));
+        return dto;
+    }
+
+    public static HistogramData toDto(LatencyHistogram histogram) {
+        if (histogram == null) return null;
+
+        HistogramData dto = new HistogramData();
+        dto.setCount(histogram.getCount());
+        dto.setSumMillis(histogram.getSumMillis());
+        dto.setP50Millis(histogram.percentileMillis(50));
+        dto.setP90Millis(histogram.percentileMillis(90));
+        dto.setP99Millis(histogram.percentileMillis(99));
+
+        long[] counts = histogram.getBucketCounts();
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            String bound = i < LatencyHistogram.BOUNDS_MS.length
+                    ? String.valueOf(LatencyHistogram.BOUNDS_MS[i])
+                    : "+Inf";
+            buckets.put(bound, counts[i]);
+        }
+        dto.setBuckets(buckets);
+        return dto;
+    }
+
+    public static ReportCacheStatsData toDto(ReportCache cache) {
+        if (cache == null) return null;
+
+        ReportCacheStatsData dto = new ReportCacheStatsData();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        dto.setHits(hits);
+        dto.setMisses(misses);
+        dto.setHitRate(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        dto.setSize(cache.getSize());
+        return dto;
+    }
+
+    public static SlowQueryData toDto(SlowQueryLog.SlowQuery query) {
+        if (query == null) return null;
+
+        SlowQueryData dto = new SlowQueryData();
+        dto.setTime(query.getTime());
+        dto.setCaller(query.getCaller());
+        dto.setDurationMs(query.getDurationMs());
+        dto.setSql(query.getSql());
+        dto.setParams(query.getParams());
+        dto.setPlan(query.getPlan());
+        return dto;
+    }
+
+    public static TokenCacheStatsData toDto(TokenCache cache) {
+        if (cache == null) return null;
+
+        TokenCacheStatsData dto = new TokenCacheStatsData();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        dto.setHits(hits);
+        dto.setMisses(misses);
+        dto.setHitRate(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        dto.setSize(cache.getSize());
+        return dto;
+    }
+}
@@ -0,0 +1,50 @@
+package model.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// дневные итоги по сотруднику, ведутся DailyRollupDAO инкрементально и пересобираются из истории
+@Entity
+@Table(name = "daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "daily_rollup_day_employee_uk", columnNames = {"day", "id_employee"})
+})
+@Getter
+@Setter
+public class DailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    // без внешнего ключа, чтобы итоги не мешали удалению сотрудника
+    @Column(name = "id_employee", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "orders_amount", nullable = false)
+    private Long ordersAmount = 0L;
+
+    @Column(name = "orders_sum", precision = 14, scale = 2, nullable = false)
+    private BigDecimal ordersSum = BigDecimal.ZERO;
+
+    @Column(name = "prime_cost_sum", precision = 14, scale = 2, nullable = false)
+    private BigDecimal primeCostSum = BigDecimal.ZERO;
+
+    @Column(name = "paid_orders_amount", nullable = false)
+    private Long paidOrdersAmount = 0L;
+
+    @Column(name = "table_amount", nullable = false)
+    private Long tableAmount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount = 0L;
+}
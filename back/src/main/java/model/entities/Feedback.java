@@ -7,7 +7,9 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "feedback")
+@Table(name = "feedback", indexes = {
+        @Index(name = "feedback_time_id_idx", columnList = "time, id")
+})
 @Getter
 @Setter
 public class Feedback {
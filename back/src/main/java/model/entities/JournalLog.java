@@ -9,7 +9,9 @@ import model.enums.TableStatus;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "journal_log")
+@Table(name = "journal_log", indexes = {
+        @Index(name = "journal_log_table_number_id_idx", columnList = "table_number, id")
+})
 @Getter
 @Setter
 public class JournalLog {
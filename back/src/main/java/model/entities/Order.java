@@ -8,7 +8,10 @@ import model.enums.OrderStatus;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "orders_order_status_time_idx", columnList = "order_status, time"),
+        @Index(name = "orders_time_id_idx", columnList = "time, id")
+})
 @Getter
 @Setter
 public class Order {
@@ -0,0 +1,6 @@
+package model.enums;
+
+public enum ExportFormat {
+    csv,
+    ndjson;
+}
@@ -0,0 +1,7 @@
+package model.enums;
+
+public enum ExportType {
+    orders,
+    bills,
+    journal;
+}
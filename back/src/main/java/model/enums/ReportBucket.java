@@ -0,0 +1,8 @@
+package model.enums;
+
+// шаг временного ряда в отчетах, имя совпадает с полем date_trunc
+public enum ReportBucket {
+    hour,
+    day,
+    week;
+}
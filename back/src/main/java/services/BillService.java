@@ -1,15 +1,17 @@
 package services;
 
 import db.BillDAO;
+import db.TableStateRegistry.TableState;
 import dto.BillCreationRequest;
 import dto.JournalData;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import model.entities.Bill;
-import model.entities.Employee;
-import model.entities.JournalLog;
 import model.enums.TableNumber;
 import model.enums.TableStatus;
+import utils.JfrRecorded;
+
+import java.time.ZoneId;
 
 @RequestScoped
 public class BillService {
@@ -20,37 +22,36 @@ public class BillService {
     @Inject
     private JournalService journalService;
 
+    @Inject
+    private ReportCache reportCache;
+
 
     // отлов ошибки из бд
+    @JfrRecorded
     public Long createBill(BillCreationRequest request) {
 
         TableNumber tableNumber = request.getTableNumber();
         Short guestNumber = request.getGuestNumber();
 
-        JournalLog lastLog = journalService.getLastLogForTableNumber(tableNumber);
-        if (lastLog == null) {
+        TableState lastState = journalService.getTableState(tableNumber);
+        if (lastState == null) {
             throw new IllegalStateException("Для стола " + tableNumber + " нет записей в журнале");
         }
 
-        Employee employee = lastLog.getEmployee();
-        if (employee == null) {
+        Long employeeId = lastState.getEmployeeId();
+        if (employeeId == null) {
             throw new IllegalStateException(
                     "Для стола " + tableNumber + " не найден сотрудник в последней записи журнала"
             );
         }
 
-
-        if (lastLog.getTableStatus() == TableStatus.not_paid) {
-            lastLog = journalService.getLastOccupiedLogForTableNumber(tableNumber);
-        }
-
         JournalData journalData = new JournalData();
-        journalData.setEmployeeId(employee.getId());
+        journalData.setEmployeeId(employeeId);
         journalData.setTableNumber(tableNumber);
         journalData.setTableStatus(TableStatus.not_paid);
         try {
 
-            if (journalService.getLastLogForTableNumber(tableNumber).getTableStatus() != TableStatus.not_paid) {
+            if (lastState.getTableStatus() != TableStatus.not_paid) {
                 journalService.create(journalData);
             }
             return billDAO.createBillForTableGuest(tableNumber, guestNumber);
@@ -82,6 +83,7 @@ public class BillService {
     }
 
 
+    @JfrRecorded
     public boolean payBill(Long billId) {
 
         Bill bill = billDAO.findById(billId);
@@ -96,16 +98,20 @@ public class BillService {
         }
 
 
-        Employee employee = journalService.getEmployee(tableNumber);
-        if (employee == null) {
+        Long employeeId = journalService.getEmployeeId(tableNumber);
+        if (employeeId == null) {
             throw new IllegalStateException("Для стола " + tableNumber + " не найден сотрудник в журнале");
         }
 
         JournalData journalData = new JournalData();
-        journalData.setEmployeeId(employee.getId());
+        journalData.setEmployeeId(employeeId);
         journalData.setTableNumber(tableNumber);
 
         boolean result = billDAO.markAsPaid(billId);
+        if (result) {
+            // оплаченные заказы учитываются в дне создания счета, он может быть уже закрыт
+            reportCache.evictDay(bill.getTime().atZoneSameInstant(ZoneId.systemDefault()).toLocalDate());
+        }
 
         long openBills = billDAO.countOpenBillsForTable(tableNumber);
         long ordersWithoutBill = billDAO.countOrdersWithoutBillForTable(tableNumber);
@@ -2,11 +2,18 @@ package services;
 
 import db.FeedbackDAO;
 import dto.FeedbackCreationRequest;
+import dto.PageData;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import model.entities.Feedback;
+import utils.AppConfig;
+import utils.CursorUtil;
+import utils.PageUtil;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RequestScoped
 public class FeedbackService {
@@ -18,8 +25,29 @@ public class FeedbackService {
         feedbackDAO.insertNew(feedbackData);
     }
 
-    public List<Feedback> getAll(){
-        return feedbackDAO.getAll();
+    public PageData<Feedback> getPage(LocalDate from, LocalDate to, String cursor, Integer limit) {
+        int pageSize = PageUtil.pageSize(limit);
+        OffsetDateTime fromTime = PageUtil.startOf(from);
+        OffsetDateTime toTime = PageUtil.endOf(to);
+
+        List<Feedback> feedbacks = feedbackDAO.getPage(fromTime, toTime, CursorUtil.decode(cursor), pageSize);
+        String nextCursor = null;
+        if (feedbacks.size() > pageSize) {
+            feedbacks = feedbacks.subList(0, pageSize);
+            Feedback last = feedbacks.get(pageSize - 1);
+            nextCursor = CursorUtil.encode(last.getTime(), last.getId());
+        }
+
+        return new PageData<>(feedbacks, nextCursor, feedbackDAO.count(fromTime, toTime));
+    }
+
+    public void streamAll(LocalDate from, LocalDate to, Consumer<Feedback> consumer) {
+        feedbackDAO.scroll(
+                PageUtil.startOf(from),
+                PageUtil.endOf(to),
+                AppConfig.getInt("db.stream.fetchSize", 500),
+                consumer
+        );
     }
 
     public List<Feedback> getForEmployee(Long id){
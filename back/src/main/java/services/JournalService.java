@@ -3,14 +3,19 @@ package services;
 import db.BillDAO;
 import db.EmployeeDAO;
 import db.JournalDAO;
+import db.TableStateRegistry;
+import db.TableStateRegistry.TableState;
 import dto.JournalData;
+import dto.TableStatusEventData;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import model.entities.Employee;
 import model.entities.JournalLog;
 import model.entities.Order;
 import model.enums.TableNumber;
 import model.enums.TableStatus;
+import utils.JfrRecorded;
 
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +35,16 @@ public class JournalService {
     @Inject
     BillDAO billDAO;
 
+    @Inject
+    TableStateRegistry tableStateRegistry;
+
+    @Inject
+    ReportCache reportCache;
+
+    @Inject
+    Event<TableStatusChangedEvent> tableStatusChanged;
+
+    @JfrRecorded
     public JournalLog create(JournalData journalData) throws IllegalArgumentException {
         TableStatus tableStatus = getTableStatusOrNull(journalData.getTableNumber());
 
@@ -76,32 +91,44 @@ public class JournalService {
     }
 
     public TableStatus getTableStatus(TableNumber tableNumber) {
-        JournalLog journalLog = getLastLogForTableNumber(tableNumber);
-        if (journalLog == null) {
+        TableStatus tableStatus = tableStateRegistry.getStatus(tableNumber);
+        if (tableStatus == null) {
             throw new IllegalArgumentException("Для этого стола нет записей в журнале логов");
         }
-        return journalLog.getTableStatus();
+        return tableStatus;
     }
 
     public Map<TableNumber, TableStatus> getTableStatuses() {
         Map<TableNumber, TableStatus> tableStatuses = new HashMap<>();
-        for (TableNumber tableNumber : TableNumber.values()) {
-            JournalLog journalLog = getLastLogForTableNumber(tableNumber);
-            if (journalLog == null) {
-                tableStatuses.put(tableNumber, null);
-            } else {
-                tableStatuses.put(tableNumber, journalLog.getTableStatus());
-            }
+        for (Map.Entry<TableNumber, TableState> entry : tableStateRegistry.snapshot().entrySet()) {
+            TableState state = entry.getValue();
+            tableStatuses.put(entry.getKey(), state == null ? null : state.getTableStatus());
         }
         return tableStatuses;
     }
 
+    public TableState getTableState(TableNumber tableNumber) {
+        return tableStateRegistry.get(tableNumber);
+    }
+
+    public List<JournalLog> getTablesSnapshot() {
+        return journalDAO.findLastForAllTables();
+    }
+
     public Employee getEmployee(TableNumber tableNumber) {
-        JournalLog journalLog = getLastLogForTableNumber(tableNumber);
-        if (journalLog == null) {
+        Long employeeId = getEmployeeId(tableNumber);
+        if (employeeId == null) {
+            return null;
+        }
+        return employeeDAO.findById(employeeId);
+    }
+
+    public Long getEmployeeId(TableNumber tableNumber) {
+        TableState state = tableStateRegistry.get(tableNumber);
+        if (state == null) {
             return null;
         }
-        return journalLog.getEmployee();
+        return state.getEmployeeId();
     }
 
     public void resetEmployee(Long id, TableNumber tableNumber) throws IllegalArgumentException {
@@ -109,12 +136,18 @@ public class JournalService {
         if (employee == null) {
             throw new IllegalArgumentException("Сотрудник с заданным id не найден");
         }
-        JournalLog journalLog = getLastLogForTableNumber(tableNumber);
-        if (journalLog == null) {
+        TableState state = tableStateRegistry.get(tableNumber);
+        if (state == null) {
             throw new IllegalArgumentException("Для этого стола нет записей в журнале логов");
         }
 
-        journalDAO.resetEmployee(employee, journalLog.getId());
+        journalDAO.resetEmployee(employee, tableNumber, state.getJournalLogId());
+        // итоги стола могли лежать в разных днях, точечно сбрасывать нечего
+        reportCache.evictAll();
+        tableStatusChanged.fire(new TableStatusChangedEvent(
+                new TableStatusEventData(state.getJournalLogId(), tableNumber, state.getTableStatus(), employee.getId()),
+                false
+        ));
     }
 
     public List<JournalLog> getLastForHours(Integer hours){
@@ -130,17 +163,15 @@ public class JournalService {
     }
 
     private TableStatus getTableStatusOrNull(TableNumber tableNumber) {
-        JournalLog journalLog = getLastLogForTableNumber(tableNumber);
-        if (journalLog == null) {
-            return null;
-        }
-        return journalLog.getTableStatus();
+        return tableStateRegistry.getStatus(tableNumber);
     }
 
     private JournalLog createRecord(Long id, TableNumber tableNumber, TableStatus tableStatus) {
         try {
 
-            return journalDAO.create(id, tableNumber, tableStatus);
+            JournalLog journalLog = journalDAO.create(id, tableNumber, tableStatus);
+            tableStatusChanged.fire(new TableStatusChangedEvent(TableEventBroadcaster.toData(journalLog), true));
+            return journalLog;
 
         } catch (Exception e) {
             Throwable cause = e;
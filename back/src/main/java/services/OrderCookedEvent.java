@@ -0,0 +1,13 @@
+package services;
+
+import dto.OrderCookedEventData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// CDI-событие, OrderService бросает его, когда заказ переходит в cooked
+@Getter
+@AllArgsConstructor
+public class OrderCookedEvent {
+    private final Long waiterId;
+    private final OrderCookedEventData data;
+}
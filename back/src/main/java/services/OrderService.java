@@ -3,25 +3,40 @@ package services;
 import db.DishDAO;
 import db.JournalDAO;
 import db.OrderDAO;
+import db.TableStateRegistry.TableState;
+import dto.OrderCookedEventData;
+import dto.PageData;
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.PathParam;
 import model.entities.Dish;
 import model.entities.JournalLog;
 import model.entities.Order;
 import model.enums.OrderStatus;
+import model.enums.Station;
 import model.enums.TableNumber;
 import model.enums.TableStatus;
+import utils.CursorUtil;
+import utils.JfrRecorded;
+import utils.PageUtil;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RequestScoped
 public class OrderService {
 
+    private static final long EXACT_COUNT_LIMIT = 100_000;
+
     @Inject
     OrderDAO orderDAO;
 
+    @Inject
+    ReportCache reportCache;
+
 
     @Inject
     JournalDAO journalDAO;
@@ -32,19 +47,22 @@ public class OrderService {
     @Inject
     DishDAO dishDAO;
 
+    @Inject
+    Event<OrderCookedEvent> orderCooked;
+
 
+    @JfrRecorded
     public long create(TableNumber tableNumber, Long dishId, Short guestNumber) {
 
-        TableStatus tableStatus = journalService.getTableStatus(tableNumber);
-        if (tableStatus != TableStatus.occupied) {
+        TableState tableState = journalService.getTableState(tableNumber);
+        if (tableState == null) {
+            throw new IllegalArgumentException("Для этого стола нет записей в журнале логов");
+        }
+        if (tableState.getTableStatus() != TableStatus.occupied) {
             throw new IllegalArgumentException("Заказ можно оформить только для занятого стола");
         }
 
-
-        JournalLog journalLog = journalDAO.findLastByTableNumber(tableNumber);
-        if (journalLog == null) {
-            throw new IllegalArgumentException("Для этого стола нет записей в журнале логов");
-        }
+        JournalLog journalLog = journalDAO.getReference(tableState.getJournalLogId());
 
 
         Dish dish = dishDAO.findById(dishId);
@@ -83,8 +101,38 @@ public class OrderService {
         }
     }
 
-    public List<Order> getAll() {
-        return orderDAO.findAll();
+    public PageData<Order> getPage(LocalDate from, LocalDate to, OrderStatus status, TableNumber table,
+                                   String cursor, Integer limit) {
+        int pageSize = PageUtil.pageSize(limit);
+        OffsetDateTime fromTime = PageUtil.startOf(from);
+        OffsetDateTime toTime = PageUtil.endOf(to);
+
+        List<Order> orders = orderDAO.findPage(fromTime, toTime, status, table, CursorUtil.decode(cursor), pageSize);
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            Order last = orders.get(pageSize - 1);
+            nextCursor = CursorUtil.encode(last.getTime(), last.getId());
+        }
+
+        // общее количество нужно клиенту один раз - на следующих страницах COUNT не выполняется
+        Long totalCount = cursor == null || cursor.isBlank() ? countOrders(fromTime, toTime, status, table) : null;
+        return new PageData<>(orders, nextCursor, totalCount);
+    }
+
+    // без фильтров точный COUNT по всей таблице дорогой - на больших объемах отдаем оценку из статистики
+    private long countOrders(OffsetDateTime from, OffsetDateTime to, OrderStatus status, TableNumber table) {
+        if (from == null && to == null && status == null && table == null) {
+            long estimate = orderDAO.estimateCount();
+            if (estimate >= EXACT_COUNT_LIMIT) {
+                return estimate;
+            }
+        }
+        return orderDAO.count(from, to, status, table);
+    }
+
+    public List<Order> getFeed(Station station) {
+        return orderDAO.findFeed(station == Station.kitchen);
     }
 
     public Order findById(Long id) {
@@ -116,6 +164,8 @@ public class OrderService {
             throw new IllegalArgumentException("Заказ нельзя удалить, так как он уже в счете");
         }
         orderDAO.delete(order);
+        // заказ мог быть сделан в прошлый день, чьи итоги уже закэшированы
+        reportCache.evictDay(order.getTime().atZoneSameInstant(ZoneId.systemDefault()).toLocalDate());
     }
 
     public void changeStatus(Long orderId, OrderStatus newStatus, String role) {
@@ -129,6 +179,9 @@ public class OrderService {
         if ("admin".equals(role)) {
             existing.setStatus(newStatus);
             orderDAO.modify(existing);
+            if (current != OrderStatus.cooked && newStatus == OrderStatus.cooked) {
+                notifyWaiter(existing);
+            }
             return;
         }
 
@@ -136,6 +189,7 @@ public class OrderService {
             if (current == OrderStatus.accepted && newStatus == OrderStatus.cooked) {
                 existing.setStatus(newStatus);
                 orderDAO.modify(existing);
+                notifyWaiter(existing);
                 return;
             } else {
                 throw new IllegalArgumentException("Повар или бармен может менять статус только с accepted на cooked");
@@ -155,15 +209,34 @@ public class OrderService {
         throw new IllegalArgumentException("Нет доступа к изменению статуса");
     }
 
+    private void notifyWaiter(Order order) {
+        JournalLog journalLog = order.getJournalLog();
+        if (journalLog == null || journalLog.getEmployee() == null) {
+            return;
+        }
+        Dish dish = order.getDish();
+        orderCooked.fire(new OrderCookedEvent(
+                journalLog.getEmployee().getId(),
+                new OrderCookedEventData(
+                        order.getId(),
+                        dish != null ? dish.getId() : null,
+                        dish != null ? dish.getName() : null,
+                        journalLog.getTableNumber(),
+                        order.getGuestNumber()
+                )
+        ));
+    }
+
     public List<Order> getLastForTable(TableNumber tableNumber) {
-        JournalLog journalLog = journalDAO.findLastByTableNumber(tableNumber);
-        if (journalLog == null) {
+        TableState tableState = journalService.getTableState(tableNumber);
+        if (tableState == null) {
             throw new IllegalArgumentException("Для этого стола нет записей");
         }
-        if (journalLog.getTableStatus() != TableStatus.occupied
-                && journalLog.getTableStatus() != TableStatus.free) {
-            journalLog = journalService.getLastOccupiedLogForTableNumber(tableNumber);
+        Long journalLogId = tableState.getJournalLogId();
+        if (tableState.getTableStatus() != TableStatus.occupied
+                && tableState.getTableStatus() != TableStatus.free) {
+            journalLogId = journalService.getLastOccupiedLogForTableNumber(tableNumber).getId();
         }
-        return orderDAO.findByJournalLog(journalLog.getId());
+        return orderDAO.findByJournalLog(journalLogId);
     }
 }
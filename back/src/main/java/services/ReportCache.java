@@ -0,0 +1,135 @@
+package services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import utils.AppConfig;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// кэш частей отчетов по диапазону дней [fromDay, toDay).
+// Закрытые диапазоны (toDay <= сегодня) хранятся до явного сброса, открытые (toDay == null) - report.cache.todayTtlMs
+@ApplicationScoped
+public class ReportCache {
+
+    private final long todayTtlNanos = AppConfig.getLong("report.cache.todayTtlMs", 15000) * 1_000_000;
+    private final int maxEntries = AppConfig.getInt("report.cache.maxEntries", 1000);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // увеличивается при каждом сбросе: результат, посчитанный до сброса, в кэш уже не кладется
+    private final AtomicLong generation = new AtomicLong();
+
+    public <T> T get(String type, LocalDate fromDay, LocalDate toDay, Long employeeId, Supplier<T> loader) {
+        T value = getIfPresent(type, fromDay, toDay, employeeId);
+        if (value != null) {
+            return value;
+        }
+        long startGeneration = getGeneration();
+        value = loader.get();
+        put(type, fromDay, toDay, employeeId, value, startGeneration);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(String type, LocalDate fromDay, LocalDate toDay, Long employeeId) {
+        Entry entry = entries.get(key(type, fromDay, toDay, employeeId));
+        if (entry != null && entry.isValid(System.nanoTime())) {
+            hits.increment();
+            return (T) entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    // startGeneration - значение getGeneration() до начала расчета value
+    public void put(String type, LocalDate fromDay, LocalDate toDay, Long employeeId, Object value,
+                    long startGeneration) {
+        if (generation.get() != startGeneration) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean closed = toDay != null && !toDay.isAfter(LocalDate.now());
+        long expiresAt = closed ? Long.MAX_VALUE : now + todayTtlNanos;
+        if (entries.size() >= maxEntries) {
+            purge(now);
+        }
+        String key = key(type, fromDay, toDay, employeeId);
+        entries.put(key, new Entry(value, fromDay, toDay, closed, expiresAt));
+        // сброс мог случиться между проверкой и записью
+        if (generation.get() != startGeneration) {
+            entries.remove(key);
+        }
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    // сбросить все части, в диапазон которых попадает день (например, после оплаты вчерашнего счета)
+    public void evictDay(LocalDate day) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.covers(day));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    private String key(String type, LocalDate fromDay, LocalDate toDay, Long employeeId) {
+        return type + "|" + fromDay + "|" + toDay + "|" + employeeId;
+    }
+
+    // выкидываем просроченное и закрытые диапазоны, которые кончаются раньше сегодняшнего дня:
+    // они посчитаны в прошлые дни и уже не будут запрошены с тем же ключом
+    private void purge(long now) {
+        LocalDate today = LocalDate.now();
+        entries.values().removeIf(entry -> !entry.isValid(now)
+                || (entry.closed && entry.toDay.isBefore(today)));
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final LocalDate fromDay;
+        private final LocalDate toDay;
+        private final boolean closed;
+        private final long expiresAt;
+
+        private Entry(Object value, LocalDate fromDay, LocalDate toDay, boolean closed, long expiresAt) {
+            this.value = value;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.closed = closed;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isValid(long now) {
+            return closed || now - expiresAt < 0;
+        }
+
+        private boolean covers(LocalDate day) {
+            return !day.isBefore(fromDay) && (toDay == null || day.isBefore(toDay));
+        }
+    }
+}
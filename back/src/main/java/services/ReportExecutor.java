@@ -0,0 +1,145 @@
+package services;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorDefinition;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.RequestContextController;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import utils.AppConfig;
+import utils.CurrentEmployee;
+import utils.SqlStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// пул для параллельных подзапросов отчетов - управляемый сервером приложений executor, не больше
+// MAX_PARALLEL задач одновременно. Каждая задача выполняется в своем request-контексте,
+// поэтому получает свой EntityManager и свое соединение из пула БД
+@ManagedExecutorDefinition(name = ReportExecutor.JNDI_NAME, maxAsync = ReportExecutor.MAX_PARALLEL)
+@ApplicationScoped
+public class ReportExecutor {
+
+    static final String JNDI_NAME = "java:app/concurrent/ReportExecutor";
+    static final int MAX_PARALLEL = 4;
+
+    private final long timeoutMs = AppConfig.getLong("report.timeoutMs", 10000);
+
+    // отправленные, но еще не завершенные подзапросы; сверх лимита новые отклоняются (отчет отвечает 503)
+    private final Semaphore pending = new Semaphore(AppConfig.getInt("report.pool.queueSize", 100));
+
+    @Resource(lookup = JNDI_NAME)
+    ManagedExecutorService executor;
+
+    @Inject
+    Instance<RequestContextController> requestContextControllers;
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    // запросы подзадач засчитываются в SqlStats исходного HTTP-запроса, события JFR - на его сотрудника
+    private <T> Callable<T> inRequestContext(Callable<T> task) {
+        SqlStats sqlStats = SqlStats.current();
+        Long employeeId = CurrentEmployee.get();
+        return () -> {
+            SqlStats previous = SqlStats.attach(sqlStats);
+            Long previousEmployeeId = CurrentEmployee.get();
+            CurrentEmployee.set(employeeId);
+            RequestContextController controller = requestContextControllers.get();
+            boolean activated = controller.activate();
+            try {
+                return task.call();
+            } finally {
+                if (activated) {
+                    controller.deactivate();
+                }
+                requestContextControllers.destroy(controller);
+                SqlStats.restore(previous);
+                CurrentEmployee.set(previousEmployeeId);
+            }
+        };
+    }
+
+    // набор подзапросов одного отчета: await ждет все с общим таймаутом report.timeoutMs,
+    // при таймауте или ошибке остальные задачи отменяются
+    public class Batch {
+
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        // при переполнении RejectedExecutionException, уже отправленные задачи набора отменяются.
+        // Отмененная в очереди задача все равно доходит до run и освобождает место в pending
+        public <T> Future<T> submit(Callable<T> task) {
+            if (!pending.tryAcquire()) {
+                cancelAll();
+                throw new RejectedExecutionException("Очередь подзапросов отчетов переполнена");
+            }
+            FutureTask<T> future = new FutureTask<>(inRequestContext(task));
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.run();
+                    } finally {
+                        pending.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                pending.release();
+                cancelAll();
+                throw e;
+            }
+            futures.add(future);
+            return future;
+        }
+
+        public void await() {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            try {
+                for (Future<?> future : futures) {
+                    future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw new IllegalStateException("Отчет не посчитался за " + timeoutMs + " мс", e);
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Расчет отчета прерван", e);
+            } catch (ExecutionException e) {
+                cancelAll();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        // результат задачи после await
+        public <T> T join(Future<T> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Расчет отчета прерван", e);
+            } catch (ExecutionException | CancellationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void cancelAll() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -1,51 +1,71 @@
 package services;
 
-import db.EmployeeDAO;
+import db.DailyRollupDAO;
+import db.ExportDAO;
 import db.ReportDAO;
 import dto.EmployeeResponseData;
 import dto.reports.EmployeeReportData;
 import dto.reports.MainReportData;
+import dto.reports.ReportTotals;
+import dto.reports.SeriesPointData;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import mappers.EmployeeMapper;
-import model.entities.Bill;
-import model.entities.Employee;
-import model.entities.Feedback;
-import model.entities.Order;
-import model.enums.BillStatus;
+import model.enums.ExportType;
+import model.enums.ReportBucket;
+import utils.AppConfig;
+import utils.JfrRecorded;
+import utils.PageUtil;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RequestScoped
+@JfrRecorded
 public class ReportService {
 
+    private static final int MAX_SERIES_POINTS = 10_000;
+
     @Inject
     ReportDAO reportDAO;
 
     @Inject
-    EmployeeDAO employeeDAO;
+    DailyRollupDAO dailyRollupDAO;
+
+    @Inject
+    ReportCache reportCache;
+
+    @Inject
+    ExportDAO exportDAO;
+
+    @Inject
+    ReportExecutor reportExecutor;
 
     @Transactional
     public MainReportData mainReport(LocalDate date) {
-        OffsetDateTime fromDateTime = date.atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
-        List<Order> orders = reportDAO.getOrdersFromDate(fromDateTime);
-        List<Bill> bills = reportDAO.getBillsFromDate(fromDateTime);
+        List<ReportTotals> segments = loadSegments("main", date, null, (batch, fromDay, toDay) -> {
+            Future<ReportTotals> future = batch.submit(() -> reportDAO.getTotals(fromDay, toDay));
+            return () -> batch.join(future);
+        });
+        ReportTotals totals = ReportTotals.sum(segments);
 
         MainReportData report = new MainReportData();
-        report.setOrdersSum(calculateOrdersSum(orders));
-        report.setPrimeCostSum(calculatePrimeCostSum(orders));
+        report.setOrdersSum(totals.getOrdersSum());
+        report.setPrimeCostSum(totals.getPrimeCostSum());
+        report.setOrdersAmount((int) totals.getOrdersAmount());
+        report.setPaidOrdersAmount((int) totals.getPaidOrdersAmount());
 
-        report.setOrdersAmount(orders.size());
-        report.setPaidOrdersAmount(calculatePaidOrders(bills));
-        Integer notPaid = orders.size() - report.getPaidOrdersAmount();
+        Integer notPaid = report.getOrdersAmount() - report.getPaidOrdersAmount();
         report.setNotPaidOrdersAmount(notPaid > 0 ? notPaid : 0);
 
         return report;
@@ -53,74 +73,139 @@ public class ReportService {
 
     @Transactional
     public Map<Long, EmployeeReportData> employeeAllReport(LocalDate date) {
-        Map<Long, EmployeeReportData> result = new HashMap<>();
-        List<Employee> employees = employeeDAO.findAll();
-        for (Employee employee : employees) {
-            result.put(employee.getId(), employeeReport(employee.getId(), date));
-        }
-        return result;
+        return buildEmployeeReports("employee-all", date, null);
     }
 
     public EmployeeReportData employeeReport(Long id, LocalDate date) {
-        OffsetDateTime fromDateTime = date.atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
-        EmployeeReportData employeeReportData = new EmployeeReportData();
-        List<Order> orders = reportDAO.getOrdersFromDateAndEmployee(fromDateTime, id);
-        List<Feedback> feedbacks = reportDAO.getFeedbackForEmployee(fromDateTime, id);
-
-        employeeReportData.setOrdersAmount(orders.size());
-        employeeReportData.setOrdersSum(calculateOrdersSum(orders));
-        employeeReportData.setTableAmount(reportDAO.getTableAmountForEmployee(fromDateTime, id));
-        if (feedbacks != null && !feedbacks.isEmpty()) {
-            employeeReportData.setRating(countRating(feedbacks));
-            employeeReportData.setComments(getComments(feedbacks));
+        EmployeeReportData report = buildEmployeeReports("employee", date, id).get(id);
+        if (report == null) {
+            report = new EmployeeReportData(0, BigDecimal.ZERO, 0, null, null);
         }
-        return employeeReportData;
+        return report;
     }
 
-    private Double countRating(List<Feedback> feedbacks) {
-        Double sum = 0.0;
-        Double count = 0.0;
-        for (Feedback feedback : feedbacks) {
-            sum += feedback.getRating();
-            count++;
+    // ряд с from по to включительно; закрытые диапазоны кэшируются так же, как прошедшие дни в остальных отчетах
+    public List<SeriesPointData> series(LocalDate from, LocalDate to, ReportBucket bucket) {
+        if (from == null || to == null || bucket == null) {
+            throw new IllegalArgumentException("from, to и bucket обязательны");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to раньше from");
         }
-        return sum / count;
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        long points = bucket == ReportBucket.hour ? days * 24 : bucket == ReportBucket.day ? days : days / 7 + 2;
+        if (points > MAX_SERIES_POINTS) {
+            throw new IllegalArgumentException("Слишком много интервалов: " + points + ", максимум " + MAX_SERIES_POINTS);
+        }
+
+        LocalDate toExclusive = to.plusDays(1);
+        ZoneId zone = ZoneId.systemDefault();
+        return reportCache.get("series-" + bucket.name(), from, toExclusive, null,
+                () -> reportDAO.getSeries(
+                        from.atStartOfDay(zone).toOffsetDateTime(),
+                        toExclusive.atStartOfDay(zone).toOffsetDateTime(),
+                        bucket));
     }
 
-    private List<String> getComments(List<Feedback> feedbacks){
-        List<String> comments = new ArrayList<>();
-        for (Feedback feedback : feedbacks) {
-            if (feedback.getComment() != null) {
-                comments.add(feedback.getComment().getBody());
-            }
-        }
-        return comments;
+    public List<String> exportColumns(ExportType type) {
+        return exportDAO.getColumns(type);
     }
 
-    private BigDecimal calculateOrdersSum(List<Order> orders) {
-        BigDecimal sum = BigDecimal.ZERO;
-        for (Order order : orders) {
-            sum = sum.add(order.getDish().getCost());
+    // from/to включительно, любая граница может отсутствовать
+    public void export(ExportType type, LocalDate from, LocalDate to, Consumer<Object[]> consumer) {
+        exportDAO.scroll(
+                type,
+                PageUtil.startOf(from),
+                PageUtil.endOf(to),
+                AppConfig.getInt("db.stream.fetchSize", 500),
+                consumer
+        );
+    }
+
+    // пересборка daily_rollup из истории, возвращает количество строк итогов
+    public int rebuildRollups() {
+        int rows = dailyRollupDAO.rebuild();
+        reportCache.evictAll();
+        return rows;
+    }
+
+    private Map<Long, EmployeeReportData> buildEmployeeReports(String type, LocalDate date, Long employeeId) {
+        List<Map<Long, ReportTotals>> segments = loadSegments(type, date, employeeId, (batch, fromDay, toDay) -> {
+            Future<Map<Long, ReportTotals>> employeeTotals =
+                    batch.submit(() -> reportDAO.getEmployeeTotals(fromDay, toDay, employeeId));
+            Future<Map<Long, List<String>>> comments =
+                    batch.submit(() -> reportDAO.getCommentsByEmployee(fromDay, toDay, employeeId));
+            return () -> withComments(batch.join(employeeTotals), batch.join(comments));
+        });
+        Map<Long, List<ReportTotals>> parts = new HashMap<>();
+        for (Map<Long, ReportTotals> segment : segments) {
+            segment.forEach((id, employeeTotals) -> parts.computeIfAbsent(id, k -> new ArrayList<>()).add(employeeTotals));
         }
-        return sum;
+
+        Map<Long, EmployeeReportData> result = new HashMap<>();
+        parts.forEach((id, employeeParts) -> result.put(id, toEmployeeReport(ReportTotals.sum(employeeParts))));
+        return result;
     }
 
-    private BigDecimal calculatePrimeCostSum(List<Order> orders) {
-        BigDecimal sum = BigDecimal.ZERO;
-        for (Order order : orders) {
-            sum = sum.add(order.getDish().getPrimeCost());
+    private EmployeeReportData toEmployeeReport(ReportTotals totals) {
+        EmployeeReportData report = new EmployeeReportData();
+        report.setOrdersAmount((int) totals.getOrdersAmount());
+        report.setOrdersSum(totals.getOrdersSum());
+        report.setTableAmount((int) totals.getTableAmount());
+        // рейтинг и комментарии есть только у сотрудников с отзывами
+        if (totals.getRatingCount() > 0) {
+            report.setRating(totals.getRating());
+            report.setComments(new ArrayList<>(totals.getComments()));
         }
-        return sum;
+        return report;
     }
 
-    private Integer calculatePaidOrders(List<Bill> bills) {
-        Integer paidOrders = 0;
-        for (Bill bill : bills) {
-            if (bill.getBillStatus() == BillStatus.paid){
-                paidOrders += reportDAO.getOrdersAmountInBill(bill);
+    private Map<Long, ReportTotals> withComments(Map<Long, ReportTotals> totals, Map<Long, List<String>> comments) {
+        Map<Long, ReportTotals> result = new HashMap<>();
+        totals.forEach((id, employeeTotals) ->
+                result.put(id, employeeTotals.withComments(comments.getOrDefault(id, List.of()))));
+        return result;
+    }
+
+    // отчет "с даты date" = живая часть с сегодняшнего дня (кэш с коротким TTL)
+    // + закрытые прошедшие дни [date, сегодня) (кэш до явного сброса); живая часть идет первой.
+    // Подзапросы всех некэшированных частей уходят в ReportExecutor одновременно,
+    // так что отчет считается примерно за время самого медленного из них
+    private <T> List<T> loadSegments(String type, LocalDate date, Long employeeId, SegmentLoader<T> loader) {
+        LocalDate today = LocalDate.now();
+        LocalDate liveFrom = date.isAfter(today) ? date : today;
+        List<LocalDate[]> ranges = new ArrayList<>();
+        ranges.add(new LocalDate[]{liveFrom, null});
+        if (date.isBefore(today)) {
+            ranges.add(new LocalDate[]{date, today});
+        }
+
+        long generation = reportCache.getGeneration();
+        ReportExecutor.Batch batch = reportExecutor.newBatch();
+        List<T> cached = new ArrayList<>();
+        List<Supplier<T>> pending = new ArrayList<>();
+        for (LocalDate[] range : ranges) {
+            T value = reportCache.getIfPresent(type, range[0], range[1], employeeId);
+            cached.add(value);
+            pending.add(value == null ? loader.submit(batch, range[0], range[1]) : null);
+        }
+        batch.await();
+
+        List<T> segments = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            T value = cached.get(i);
+            if (value == null) {
+                value = pending.get(i).get();
+                reportCache.put(type, ranges.get(i)[0], ranges.get(i)[1], employeeId, value, generation);
             }
+            segments.add(value);
         }
-        return paidOrders;
+        return segments;
+    }
+
+    // отправляет подзапросы части отчета в batch и возвращает сборку результата (вызывается после await)
+    private interface SegmentLoader<T> {
+        Supplier<T> submit(ReportExecutor.Batch batch, LocalDate fromDay, LocalDate toDay);
     }
 
 }
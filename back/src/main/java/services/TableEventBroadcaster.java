@@ -0,0 +1,141 @@
+package services;
+
+import db.JournalDAO;
+import dto.TableStatusEventData;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import model.entities.JournalLog;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+// рассылка изменений статусов столов подписчикам /journal/stream.
+// События уходят в порядке коммитов, а не id: при параллельных коммитах запись 11 может прийти после 12,
+// и клиент, оборвавшийся между ними, переподключится с Last-Event-ID 12 и запись 11 не получит.
+// Точное состояние после переподключения - снимок /journal/get-all-statuses
+@ApplicationScoped
+public class TableEventBroadcaster {
+
+    public static final String EVENT_NAME = "table-status";
+
+    // сколько пропущенных записей журнала досылать клиенту после переподключения
+    private static final int MAX_REPLAY = 200;
+
+    @Inject
+    JournalDAO journalDAO;
+
+    private volatile Sse sse;
+
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    // подписчик регистрируется до запроса досылки: события, пришедшие во время запроса, копятся
+    // и отправляются после досланных записей, кроме уже досланных (по id)
+    public void subscribe(Sse sse, SseEventSink eventSink, Long lastEventId) {
+        this.sse = sse;
+        Subscriber subscriber = new Subscriber(eventSink, lastEventId != null);
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            List<TableStatusEventData> missed = new ArrayList<>();
+            try {
+                for (JournalLog journalLog : journalDAO.findAfterId(lastEventId, MAX_REPLAY)) {
+                    missed.add(toData(journalLog));
+                }
+            } finally {
+                subscriber.replay(missed);
+            }
+        }
+    }
+
+    void onTableStatusChanged(@Observes TableStatusChangedEvent event) {
+        if (sse == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.deliver(event);
+        }
+    }
+
+    // id события = id записи журнала; смена сотрудника новой записи не создает,
+    // поэтому такие события уходят без id и не сдвигают Last-Event-ID клиента
+    private OutboundSseEvent toEvent(TableStatusEventData data, boolean withId) {
+        OutboundSseEvent.Builder builder = sse.newEventBuilder()
+                .name(EVENT_NAME)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(TableStatusEventData.class, data);
+        if (withId) {
+            builder.id(String.valueOf(data.getJournalLogId()));
+        }
+        return builder.build();
+    }
+
+    public static TableStatusEventData toData(JournalLog journalLog) {
+        return new TableStatusEventData(
+                journalLog.getId(),
+                journalLog.getTableNumber(),
+                journalLog.getTableStatus(),
+                journalLog.getEmployee() != null ? journalLog.getEmployee().getId() : null
+        );
+    }
+
+    // монитор подписчика держится только на время отправки в его sink, запрос досылки идет без него
+    private class Subscriber {
+
+        private final SseEventSink sink;
+        private boolean replaying;
+        private final List<TableStatusChangedEvent> buffered = new ArrayList<>();
+        private final Set<Long> replayedIds = new HashSet<>();
+
+        Subscriber(SseEventSink sink, boolean replaying) {
+            this.sink = sink;
+            this.replaying = replaying;
+        }
+
+        synchronized void replay(List<TableStatusEventData> missed) {
+            for (TableStatusEventData data : missed) {
+                replayedIds.add(data.getJournalLogId());
+                send(data, true);
+            }
+            for (TableStatusChangedEvent event : buffered) {
+                sendLive(event);
+            }
+            buffered.clear();
+            replaying = false;
+        }
+
+        synchronized void deliver(TableStatusChangedEvent event) {
+            if (replaying) {
+                buffered.add(event);
+                return;
+            }
+            sendLive(event);
+        }
+
+        private void sendLive(TableStatusChangedEvent event) {
+            if (event.isNewRecord() && replayedIds.contains(event.getData().getJournalLogId())) {
+                return;
+            }
+            send(event.getData(), event.isNewRecord());
+        }
+
+        private void send(TableStatusEventData data, boolean withId) {
+            if (sink.isClosed()) {
+                subscribers.remove(this);
+                return;
+            }
+            sink.send(toEvent(data, withId)).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    subscribers.remove(this);
+                    sink.close();
+                }
+            });
+        }
+    }
+}
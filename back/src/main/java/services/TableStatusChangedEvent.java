@@ -0,0 +1,13 @@
+package services;
+
+import dto.TableStatusEventData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// CDI-событие, JournalService бросает его после коммита записи журнала
+@Getter
+@AllArgsConstructor
+public class TableStatusChangedEvent {
+    private final TableStatusEventData data;
+    private final boolean newRecord;
+}
@@ -0,0 +1,69 @@
+package services;
+
+import dto.OrderCookedEventData;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+// уведомления официантам о готовых заказах, подписки по id сотрудника
+@ApplicationScoped
+public class WaiterNotificationBroadcaster {
+
+    public static final String EVENT_NAME = "order-cooked";
+
+    private final Map<Long, Set<SseEventSink>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile Sse sse;
+
+    // добавление и удаление идут через compute* по ключу, чтобы sink не попал в набор,
+    // который параллельно удаляется из map как пустой
+    public void subscribe(Sse sse, Long employeeId, SseEventSink eventSink) {
+        this.sse = sse;
+        subscribers.compute(employeeId, (id, sinks) -> {
+            Set<SseEventSink> result = sinks != null ? sinks : new CopyOnWriteArraySet<>();
+            result.removeIf(SseEventSink::isClosed);
+            result.add(eventSink);
+            return result;
+        });
+    }
+
+    void onOrderCooked(@Observes OrderCookedEvent event) {
+        Long waiterId = event.getWaiterId();
+        Set<SseEventSink> sinks = subscribers.get(waiterId);
+        if (sinks == null || sse == null) {
+            return;
+        }
+        OutboundSseEvent sseEvent = sse.newEventBuilder()
+                .name(EVENT_NAME)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(OrderCookedEventData.class, event.getData())
+                .build();
+        for (SseEventSink sink : sinks) {
+            if (sink.isClosed()) {
+                unsubscribe(waiterId, sink);
+                continue;
+            }
+            sink.send(sseEvent).exceptionally(e -> {
+                unsubscribe(waiterId, sink);
+                sink.close();
+                return null;
+            });
+        }
+    }
+
+    // пустой набор убирается из map, чтобы не копились записи ушедших официантов
+    private void unsubscribe(Long employeeId, SseEventSink sink) {
+        subscribers.computeIfPresent(employeeId, (id, sinks) -> {
+            sinks.remove(sink);
+            return sinks.isEmpty() ? null : sinks;
+        });
+    }
+}
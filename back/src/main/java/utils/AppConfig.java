@@ -0,0 +1,71 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+// настройки приложения: config.properties из classpath, любое значение можно переопределить через -Dkey=value
+public class AppConfig {
+
+    private static final Logger LOG = Logger.getLogger(AppConfig.class.getName());
+
+    private static final Properties PROPS = load();
+
+    private static Properties load() {
+        Properties props = new Properties();
+        try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return props;
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPS.getProperty(key);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return parse(key, defaultValue, Integer::valueOf);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return parse(key, defaultValue, Long::valueOf);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        return parse(key, defaultValue, Double::valueOf);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return parse(key, defaultValue, value -> {
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException(value);
+            }
+            return Boolean.valueOf(value);
+        });
+    }
+
+    // настройки читаются в статических инициализаторах (SlowQueryLog, TokenCache и т.п.), поэтому
+    // некорректное значение не роняет инициализацию класса, а пишется в лог и заменяется значением по умолчанию
+    private static <T> T parse(String key, T defaultValue, Function<String, T> parser) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            LOG.warning("некорректное значение " + key + "=" + value + ", используется " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package utils;
+
+// id сотрудника из токена текущего запроса, JwtAuthFilter выставляет его на каждый запрос (null без токена)
+// и очищает в фильтре ответа, чтобы id не оставался на потоке пула после запроса
+public class CurrentEmployee {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    public static void set(Long employeeId) {
+        if (employeeId == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(employeeId);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static Long get() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,15 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("restaurant.DaoCall")
+@Label("DAO call")
+@Category({"Restaurant", "Database"})
+@Description("Вызов метода DAO")
+@StackTrace(false)
+public class DaoCallEvent extends OperationEvent {
+}
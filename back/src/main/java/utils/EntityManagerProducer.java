@@ -0,0 +1,32 @@
+package utils;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.persistence.EntityManager;
+
+// один EntityManager на HTTP-запрос: все DAO делят соединение и кэш первого уровня,
+// по окончании запроса контейнер закрывает его
+@ApplicationScoped
+public class EntityManagerProducer {
+
+    @Produces
+    @RequestScoped
+    public EntityManager createEntityManager() {
+        return JPAUtil.getEntityManager();
+    }
+
+    public void closeEntityManager(@Disposes EntityManager em) {
+        if (!em.isOpen()) {
+            return;
+        }
+        try {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package utils;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.List;
+
+// построчная запись выгрузки в CSV (с заголовком) или NDJSON (объект на строку)
+public abstract class ExportWriter {
+
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    protected final Writer writer;
+    protected final List<String> columns;
+
+    protected ExportWriter(Writer writer, List<String> columns) {
+        this.writer = writer;
+        this.columns = columns;
+    }
+
+    public static ExportWriter create(ExportFormat format, Writer writer, List<String> columns) throws IOException {
+        ExportWriter exportWriter = format == ExportFormat.csv
+                ? new CsvWriter(writer, columns)
+                : new NdjsonWriter(writer, columns);
+        exportWriter.writeHeader();
+        return exportWriter;
+    }
+
+    public abstract void writeRow(Object[] row) throws IOException;
+
+    protected void writeHeader() throws IOException {
+    }
+
+    // даты - ISO-8601 в часовом поясе приложения, остальное - как есть
+    protected static String format(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime().toString();
+        }
+        if (value instanceof BigDecimal bd) {
+            return bd.toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static class CsvWriter extends ExportWriter {
+
+        private CsvWriter(Writer writer, List<String> columns) {
+            super(writer, columns);
+        }
+
+        @Override
+        protected void writeHeader() throws IOException {
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (row[i] != null) {
+                    writer.write(escape(format(row[i])));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static class NdjsonWriter extends ExportWriter {
+
+        private NdjsonWriter(Writer writer, List<String> columns) {
+            super(writer, columns);
+        }
+
+        @Override
+        public void writeRow(Object[] row) throws IOException {
+            writer.write('{');
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(JSONB.toJson(columns.get(i)));
+                writer.write(':');
+                Object value = row[i];
+                if (value == null) {
+                    writer.write("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    writer.write(format(value));
+                } else {
+                    writer.write(JSONB.toJson(format(value)));
+                }
+            }
+            writer.write("}\n");
+        }
+    }
+}
@@ -1,14 +1,46 @@
 package utils;
 
-import jakarta.annotation.PostConstruct;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public class JPAUtil {
 
-    private static final EntityManagerFactory emf =
-            Persistence.createEntityManagerFactory("MyPU");
+    private static final EntityManagerFactory emf = createEntityManagerFactory();
+
+    // url/user/password по-прежнему берутся из persistence.xml, здесь только настройки пула
+    private static EntityManagerFactory createEntityManagerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put("hibernate.connection.provider_class", SlowQueryConnectionProvider.class.getName());
+        props.put("hibernate.hikari.poolName", "MyPU");
+        props.put("hibernate.hikari.maximumPoolSize", AppConfig.getString("db.pool.maxSize", "20"));
+        props.put("hibernate.hikari.minimumIdle", AppConfig.getString("db.pool.minIdle", "5"));
+        props.put("hibernate.hikari.connectionTimeout", AppConfig.getString("db.pool.connectionTimeoutMs", "5000"));
+        props.put("hibernate.hikari.validationTimeout", AppConfig.getString("db.pool.validationTimeoutMs", "3000"));
+        props.put("hibernate.hikari.idleTimeout", AppConfig.getString("db.pool.idleTimeoutMs", "600000"));
+        props.put("hibernate.hikari.maxLifetime", AppConfig.getString("db.pool.maxLifetimeMs", "1800000"));
+        props.put("hibernate.hikari.leakDetectionThreshold", AppConfig.getString("db.pool.leakDetectionThresholdMs", "20000"));
+        props.put("hibernate.session.events.auto", SqlStatsListener.class.getName());
+
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory("MyPU", props);
+        registerPoolMetrics(factory);
+        return factory;
+    }
+
+    private static void registerPoolMetrics(EntityManagerFactory factory) {
+        ConnectionProvider connectionProvider = factory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (connectionProvider != null && connectionProvider.isUnwrappableAs(HikariDataSource.class)) {
+            connectionProvider.unwrap(HikariDataSource.class).setMetricsTrackerFactory(PoolMetrics.INSTANCE);
+        }
+    }
 
     public static EntityManager getEntityManager() {
         return emf.createEntityManager();
@@ -0,0 +1,111 @@
+package utils;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import model.enums.TableNumber;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+
+// оборачивает методы с @JfrRecorded в событие JFR. Если запись событий выключена,
+// стоимость - проверка isEnabled на неактивном событии
+@JfrRecorded
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class JfrInterceptor {
+
+    @AroundInvoke
+    public Object record(InvocationContext ctx) throws Exception {
+        Method method = ctx.getMethod();
+        Class<?> type = method.getDeclaringClass();
+        OperationEvent event = type.getPackageName().equals("db") ? new DaoCallEvent() : new ServiceOperationEvent();
+        if (!event.isEnabled()) {
+            return ctx.proceed();
+        }
+
+        SqlStats sqlStats = SqlStats.current();
+        long statementsBefore = sqlStats == null ? 0 : sqlStats.getStatements();
+        event.begin();
+        Object result = null;
+        try {
+            result = ctx.proceed();
+            return result;
+        } catch (Exception e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.className = type.getSimpleName();
+                event.method = method.getName();
+                fillFromArguments(event, ctx.getParameters());
+                event.rows = method.getReturnType() == void.class ? -1 : rows(result);
+                event.sqlStatements = sqlStats == null ? 0 : sqlStats.getStatements() - statementsBefore;
+                event.commit();
+            }
+        }
+    }
+
+    // номер стола и сотрудник берутся из аргументов (TableNumber или DTO с getTableNumber/getEmployeeId),
+    // сотрудник по умолчанию - тот, кто выполняет запрос
+    private static void fillFromArguments(OperationEvent event, Object[] parameters) {
+        TableNumber tableNumber = null;
+        Long employeeId = null;
+        if (parameters != null) {
+            for (Object parameter : parameters) {
+                if (parameter instanceof TableNumber number) {
+                    tableNumber = tableNumber == null ? number : tableNumber;
+                    continue;
+                }
+                if (parameter == null || parameter instanceof Number || parameter instanceof CharSequence) {
+                    continue;
+                }
+                if (tableNumber == null) {
+                    tableNumber = invokeGetter(parameter, "getTableNumber", TableNumber.class);
+                }
+                if (employeeId == null) {
+                    employeeId = invokeGetter(parameter, "getEmployeeId", Long.class);
+                }
+            }
+        }
+        if (employeeId == null) {
+            employeeId = CurrentEmployee.get();
+        }
+        event.tableNumber = tableNumber == null ? null : tableNumber.name();
+        event.employeeId = employeeId == null ? 0 : employeeId;
+    }
+
+    private static <T> T invokeGetter(Object target, String name, Class<T> type) {
+        try {
+            Method getter = target.getClass().getMethod(name);
+            if (!type.isAssignableFrom(getter.getReturnType())) {
+                return null;
+            }
+            return type.cast(getter.invoke(target));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Boolean updated) {
+            return updated ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,15 @@
+package utils;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// методы (или все методы класса), вызовы которых пишутся в JFR: DAO - DaoCallEvent, сервисы - ServiceOperationEvent
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JfrRecorded {
+}
@@ -3,6 +3,7 @@ package utils;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 
 import java.util.Date;
 
@@ -13,6 +14,9 @@ public class JwtUtil {
 
     private static final Algorithm ALG = Algorithm.HMAC256(SECRET);
 
+    // JWTVerifier неизменяемый и потокобезопасный, собираем один раз
+    private static final JWTVerifier VERIFIER = JWT.require(ALG).build();
+
     public static String generateToken(Long id, String position) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + EXPIRATION_MS);
@@ -26,9 +30,7 @@ public class JwtUtil {
     }
 
     public static DecodedJWT verify(String token) {
-        return JWT.require(ALG)
-                .build()
-                .verify(token);
+        return VERIFIER.verify(token);
     }
 
 }
@@ -0,0 +1,78 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// гистограмма задержек с фиксированными корзинами, запись без блокировок
+public class LatencyHistogram {
+
+    // верхние границы корзин в миллисекундах, последняя корзина - всё, что больше
+    public static final double[] BOUNDS_MS = {
+            0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000
+    };
+
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_MS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_MS[i] * 1_000_000);
+        }
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public void recordNanos(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets.incrementAndGet(i);
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    public void recordMillis(long millis) {
+        recordNanos(millis * 1_000_000);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSumMillis() {
+        return sumNanos.sum() / 1_000_000.0;
+    }
+
+    // количество записей по корзинам (не накопительно), длина BOUNDS_MS.length + 1
+    public long[] getBucketCounts() {
+        long[] result = new long[buckets.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buckets.get(i);
+        }
+        return result;
+    }
+
+    // оценка перцентиля сверху - граница корзины, в которую он попал;
+    // для последней (открытой) корзины возвращается её нижняя граница
+    public double percentileMillis(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS_MS[Math.min(i, BOUNDS_MS.length - 1)];
+            }
+        }
+        return BOUNDS_MS[BOUNDS_MS.length - 1];
+    }
+}
@@ -0,0 +1,31 @@
+package utils;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+// общие поля событий JFR; длительность JFR считает сам между begin() и commit()
+public abstract class OperationEvent extends Event {
+
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String method;
+
+    @Label("Table Number")
+    String tableNumber;
+
+    // 0, если сотрудник неизвестен (отзывы, фоновые задачи)
+    @Label("Employee Id")
+    long employeeId;
+
+    // размер списка, число строк из int-результата, 1/0 для найденного/не найденного объекта, -1 для void
+    @Label("Rows")
+    int rows;
+
+    @Label("SQL Statements")
+    long sqlStatements;
+
+    @Label("Failed")
+    boolean failed;
+}
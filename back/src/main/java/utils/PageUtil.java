@@ -0,0 +1,31 @@
+package utils;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+// общие параметры постраничных выборок: размер страницы и границы периода [from, to] по дням
+// в часовом поясе приложения (курсор - CursorUtil)
+public class PageUtil {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    // начало дня from, null - без нижней границы
+    public static OffsetDateTime startOf(LocalDate from) {
+        return from == null ? null : from.atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    // начало дня после to (граница не включается), null - без верхней границы
+    public static OffsetDateTime endOf(LocalDate to) {
+        return to == null ? null : startOf(to.plusDays(1));
+    }
+}
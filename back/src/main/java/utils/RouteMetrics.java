@@ -0,0 +1,59 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// метрики HTTP по методам ресурсов (OrderResource.create и т.п.): гистограмма задержек,
+// ответы по кодам и запросы в работе. Запись без блокировок - ConcurrentHashMap блокирует
+// только при первом появлении маршрута или кода ответа
+public class RouteMetrics {
+
+    public static final RouteMetrics INSTANCE = new RouteMetrics();
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private RouteMetrics() {
+    }
+
+    public Route route(String name) {
+        Route route = routes.get(name);
+        return route != null ? route : routes.computeIfAbsent(name, key -> new Route());
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public static class Route {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder inFlight = new LongAdder();
+
+        public void start() {
+            inFlight.increment();
+        }
+
+        public void finish(int status, long elapsedNanos) {
+            inFlight.decrement();
+            latency.recordNanos(elapsedNanos);
+            LongAdder counter = statuses.get(status);
+            if (counter == null) {
+                counter = statuses.computeIfAbsent(status, key -> new LongAdder());
+            }
+            counter.increment();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public Map<Integer, LongAdder> getStatuses() {
+            return statuses;
+        }
+
+        public long getInFlight() {
+            return inFlight.sum();
+        }
+    }
+}
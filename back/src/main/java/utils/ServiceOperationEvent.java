@@ -0,0 +1,15 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("restaurant.ServiceOperation")
+@Label("Service operation")
+@Category({"Restaurant", "Service"})
+@Description("Операция сервиса: заказ, оплата счета, запись в журнал, отчет")
+@StackTrace(false)
+public class ServiceOperationEvent extends OperationEvent {
+}
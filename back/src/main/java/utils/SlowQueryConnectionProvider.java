@@ -0,0 +1,90 @@
+package utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.HibernateException;
+import org.hibernate.hikaricp.internal.HikariCPConnectionProvider;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// пул Hikari, у которого соединения обернуты для SlowQueryLog: замеряется каждое выполнение
+// и запоминаются параметры. Если журнал выключен, соединения отдаются как есть
+public class SlowQueryConnectionProvider extends HikariCPConnectionProvider {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"
+    );
+
+    @Override
+    public void configure(Map<String, Object> props) throws HibernateException {
+        super.configure(props);
+        SlowQueryLog.INSTANCE.setExplainDataSource(unwrap(HikariDataSource.class));
+    }
+
+    @Override
+    public Connection getConnection() throws java.sql.SQLException {
+        Connection connection = super.getConnection();
+        if (!SlowQueryLog.INSTANCE.isEnabled()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (result instanceof CallableStatement callable && name.equals("prepareCall")) {
+                        return wrap(callable, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement prepared && name.equals("prepareStatement")) {
+                        return wrap(prepared, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && name.equals("createStatement")) {
+                        return wrap(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    // sql == null - обычный Statement, текст запроса приходит аргументом execute
+    private static <T extends Statement> T wrap(T statement, Class<T> type, String sql) {
+        Map<Integer, Object> params = new HashMap<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                String executedSql = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    if (executedSql != null) {
+                        SlowQueryLog.INSTANCE.record(executedSql, params, System.nanoTime() - start);
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                params.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            }
+            return invoke(statement, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
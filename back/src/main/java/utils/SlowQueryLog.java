@@ -0,0 +1,228 @@
+package utils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+// журнал медленных SQL (включается db.slowQuery.thresholdMs > 0): запрос дольше порога пишется в лог
+// с параметрами и методом DAO и попадает в кольцевой буфер последних db.slowQuery.ringSize записей.
+// Для доли db.slowQuery.explainSampleRate из них в фоне снимается EXPLAIN (ANALYZE, BUFFERS),
+// для вызовов функций БД - только EXPLAIN
+public class SlowQueryLog {
+
+    public static final SlowQueryLog INSTANCE = new SlowQueryLog();
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryLog.class.getName());
+
+    // вызов функции БД (SELECT create_bill_for_table_guest(...), SELECT * FROM f(...)): ее тело для плана непрозрачно,
+    // а ANALYZE исполнил бы его по-настоящему - с блокировками строк и прочими побочными эффектами
+    private static final Pattern FUNCTION_CALL = Pattern.compile(
+            "^select\\s+(\\*\\s+from\\s+)?[a-z_][a-z0-9_.]*\\s*\\(");
+    private static final Pattern FROM = Pattern.compile("\\bfrom\\b");
+
+    private static final int MAX_PARAM_LENGTH = 200;
+    private static final int EXPLAIN_TIMEOUT_SEC = 30;
+
+    private final long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("db.slowQuery.thresholdMs", 0));
+    private final double explainSampleRate = AppConfig.getDouble("db.slowQuery.explainSampleRate", 0);
+
+    private final AtomicReferenceArray<SlowQuery> ring =
+            new AtomicReferenceArray<>(Math.max(1, AppConfig.getInt("db.slowQuery.ringSize", 100)));
+    private final AtomicLong sequence = new AtomicLong();
+
+    // один фоновый поток и короткая очередь: если EXPLAIN не успевают, лишние просто не снимаются
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(10),
+            runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    private volatile DataSource explainDataSource;
+
+    private SlowQueryLog() {
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    // EXPLAIN выполняется на отдельном соединении из того же пула, мимо обертки
+    void setExplainDataSource(DataSource dataSource) {
+        this.explainDataSource = dataSource;
+    }
+
+    void record(String sql, Map<Integer, Object> params, long elapsedNanos) {
+        if (!isEnabled() || elapsedNanos < thresholdNanos) {
+            return;
+        }
+        Map<Integer, Object> values = new TreeMap<>(params);
+        List<String> formatted = new ArrayList<>(values.size());
+        for (Object value : values.values()) {
+            formatted.add(formatParam(value));
+        }
+
+        SlowQuery query = new SlowQuery(OffsetDateTime.now(), findCaller(), elapsedNanos / 1_000_000.0, sql, formatted);
+        ring.set((int) (sequence.getAndIncrement() % ring.length()), query);
+        LOG.warning(String.format(Locale.ROOT, "slow SQL %.1f ms in %s: %s params %s",
+                query.getDurationMs(), query.getCaller(), sql, formatted));
+
+        if (explainSampleRate > 0 && explainDataSource != null && isExplainable(sql)
+                && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            explainExecutor.execute(() -> explain(query, values));
+        }
+    }
+
+    // новые записи первыми
+    public List<SlowQuery> snapshot() {
+        long last = sequence.get();
+        long first = Math.max(0, last - ring.length());
+        List<SlowQuery> result = new ArrayList<>();
+        for (long i = last - 1; i >= first; i--) {
+            SlowQuery query = ring.get((int) (i % ring.length()));
+            if (query != null) {
+                result.add(query);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    // ANALYZE выполняет запрос по-настоящему, поэтому план снимается в транзакции, которая
+    // всегда откатывается. Вызовы функций БД не исполняются вовсе - для них только EXPLAIN без ANALYZE
+    private void explain(SlowQuery query, Map<Integer, Object> values) {
+        String explain = isFunctionCall(query.getSql()) ? "EXPLAIN " : "EXPLAIN (ANALYZE, BUFFERS) ";
+        try (Connection connection = explainDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(explain + query.getSql())) {
+                statement.setQueryTimeout(EXPLAIN_TIMEOUT_SEC);
+                for (Map.Entry<Integer, Object> value : values.entrySet()) {
+                    statement.setObject(value.getKey(), value.getValue());
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                query.setPlan(plan.toString());
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            query.setPlan("EXPLAIN не выполнен: " + e.getMessage());
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with") || head.startsWith("insert")
+                || head.startsWith("update") || head.startsWith("delete");
+    }
+
+    // SELECT f(...) без FROM или SELECT * FROM f(...); агрегаты вида SELECT COUNT(*) FROM t сюда не попадают
+    private static boolean isFunctionCall(String sql) {
+        String head = sql.strip().toLowerCase(Locale.ROOT);
+        if (!FUNCTION_CALL.matcher(head).find()) {
+            return false;
+        }
+        return head.startsWith("select * from") || !FROM.matcher(head).find();
+    }
+
+    // первый метод DAO в стеке, если запрос пришел не из DAO - первый метод сервиса
+    private static String findCaller() {
+        return StackWalker.getInstance().walk(frames -> {
+            String service = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (className.startsWith("db.")) {
+                    return className.substring(3) + "." + frame.getMethodName();
+                }
+                if (service == null && className.startsWith("services.")) {
+                    service = className.substring(9) + "." + frame.getMethodName();
+                }
+            }
+            return service;
+        });
+    }
+
+    private static String formatParam(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value.toString();
+        return text.length() > MAX_PARAM_LENGTH ? text.substring(0, MAX_PARAM_LENGTH) + "..." : text;
+    }
+
+    public static class SlowQuery {
+        private final OffsetDateTime time;
+        private final String caller;
+        private final double durationMs;
+        private final String sql;
+        private final List<String> params;
+        private volatile String plan;
+
+        SlowQuery(OffsetDateTime time, String caller, double durationMs, String sql, List<String> params) {
+            this.time = time;
+            this.caller = caller;
+            this.durationMs = durationMs;
+            this.sql = sql;
+            this.params = Collections.unmodifiableList(params);
+        }
+
+        public OffsetDateTime getTime() {
+            return time;
+        }
+
+        public String getCaller() {
+            return caller;
+        }
+
+        public double getDurationMs() {
+            return durationMs;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<String> getParams() {
+            return params;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        void setPlan(String plan) {
+            this.plan = plan;
+        }
+    }
+}
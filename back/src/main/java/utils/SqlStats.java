@@ -0,0 +1,56 @@
+package utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// счетчик SQL-запросов одного HTTP-запроса: SqlStatsFilter открывает его на время запроса,
+// SqlStatsListener добавляет каждое выполнение statement/batch вместе со временем в БД
+public class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    public static SqlStats begin() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    // для фоновых потоков, которые работают на запрос (подзапросы отчетов): привязывает чужой счетчик
+    // к текущему потоку, возвращает прежний, чтобы его можно было вернуть через restore
+    public static SqlStats attach(SqlStats stats) {
+        SqlStats previous = CURRENT.get();
+        restore(stats);
+        return previous;
+    }
+
+    public static void restore(SqlStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+
+    public void record(long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public double getMillis() {
+        return nanos.sum() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,38 @@
+package utils;
+
+import org.hibernate.SessionEventListener;
+
+// подключается ко всем сессиям через hibernate.session.events.auto (новый экземпляр на сессию).
+// Счетчик берется в момент открытия сессии: EntityManager живет в пределах одного запроса
+public class SqlStatsListener implements SessionEventListener {
+
+    private final SqlStats stats = SqlStats.current();
+
+    private long startNanos;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        if (stats != null) {
+            stats.record(System.nanoTime() - startNanos);
+        }
+    }
+}
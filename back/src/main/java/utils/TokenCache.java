@@ -0,0 +1,92 @@
+package utils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// уже проверенные JWT: повторный запрос с тем же токеном не проверяет подпись заново.
+// Запись живет до exp токена; при переполнении сначала вычищаются истекшие, потом весь кэш
+public class TokenCache {
+
+    public static final TokenCache INSTANCE = new TokenCache();
+
+    private final int maxEntries = AppConfig.getInt("auth.tokenCache.maxEntries", 10000);
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private TokenCache() {
+    }
+
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = entries.get(token);
+        if (verified != null && verified.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return verified;
+        }
+        if (verified != null) {
+            entries.remove(token, verified);
+        }
+        misses.increment();
+        return null;
+    }
+
+    // токены без exp не кэшируются - их каждый раз проверяет JwtUtil.verify
+    public VerifiedToken put(String token, Long employeeId, String position, Date expiresAt) {
+        VerifiedToken verified = new VerifiedToken(employeeId, position,
+                expiresAt == null ? 0 : expiresAt.getTime());
+        if (expiresAt == null || maxEntries <= 0) {
+            return verified;
+        }
+        if (entries.size() >= maxEntries) {
+            purge(System.currentTimeMillis());
+        }
+        entries.put(token, verified);
+        return verified;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    private void purge(long now) {
+        entries.values().removeIf(verified -> verified.expiresAt <= now);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    public static class VerifiedToken {
+        private final Long employeeId;
+        private final String position;
+        private final long expiresAt;
+
+        private VerifiedToken(Long employeeId, String position, long expiresAt) {
+            this.employeeId = employeeId;
+            this.position = position;
+            this.expiresAt = expiresAt;
+        }
+
+        public Long getEmployeeId() {
+            return employeeId;
+        }
+
+        public String getPosition() {
+            return position;
+        }
+    }
+}
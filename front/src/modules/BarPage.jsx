@@ -32,8 +32,8 @@ const BarPage = () => {
   };
 
   const ordersQuery = useQuery({
-    queryKey: ['orders'],
-    queryFn: () => fetcher(`${baseUrl}/get-all`),
+    queryKey: ['orders', 'feed', 'bar'],
+    queryFn: () => fetcher(`${baseUrl}/get-feed/bar`),
     enabled: allowed,
   });
 
@@ -32,8 +32,8 @@ const KitchenPage = () => {
   };
 
   const ordersQuery = useQuery({
-    queryKey: ['orders'],
-    queryFn: () => fetcher(`${baseUrl}/get-all`),
+    queryKey: ['orders', 'feed', 'kitchen'],
+    queryFn: () => fetcher(`${baseUrl}/get-feed/kitchen`),
     enabled: allowed,
   });
 
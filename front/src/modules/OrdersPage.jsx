@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
+import { useInfiniteQuery, useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
 import { Permissions, Table, Roles } from '../domain/auth.js';
 import { useCan } from '../shared/hooks/useCan.js';
 import { useAuthStore } from '../app/store/authStore.js';
@@ -9,6 +9,9 @@ import { extractErrorMessage, normalizeErrorMessage } from '../shared/utils/erro
 
 const STATUS_OPTIONS = ['accepted', 'cooked', 'delivered'];
 
+// заказов на одной странице /order/get-all
+const ORDERS_PAGE_SIZE = 100;
+
 const statusLabels = {
   accepted: 'Принят',
   cooked: 'Приготовлен',
@@ -61,17 +64,49 @@ const OrdersPage = () => {
     );
   };
 
-  const ordersQuery = useQuery({
-    queryKey: ['orders', isWaiter ? tableFilter || 'none' : 'all'],
-    queryFn: () => {
-      if (isWaiter) {
-        return fetcher(`${baseUrl}/get-orders-by-table/${tableFilter}`);
-      }
-      return fetcher(`${baseUrl}/get-all`);
-    },
-    enabled: !isWaiter || !!tableFilter,
+  // /order/get-all отдает заказы страницами (новые первыми): следующая страница грузится по X-Next-Cursor
+  // только по кнопке, X-Total-Count приходит с первой страницей
+  const fetchOrdersPage = async cursor => {
+    const params = new URLSearchParams({ limit: String(ORDERS_PAGE_SIZE) });
+    if (cursor) params.set('cursor', cursor);
+    if (tableFilter) params.set('table', tableFilter);
+    if (startDate) params.set('from', startDate);
+    const authToken = token && token !== 'demo-token' ? token : null;
+    const res = await fetch(`${baseUrl}/get-all?${params}`, {
+      headers: {
+        'Content-Type': 'application/json',
+        ...(authToken ? { Authorization: `Bearer ${authToken}` } : {}),
+      },
+    });
+    const text = await res.text();
+    if (!res.ok) {
+      throw new Error(extractErrorMessage(res, text));
+    }
+    const total = res.headers.get('X-Total-Count');
+    return {
+      orders: text ? JSON.parse(text) : [],
+      nextCursor: res.headers.get('X-Next-Cursor'),
+      total: total == null ? null : Number(total),
+    };
+  };
+
+  const tableOrdersQuery = useQuery({
+    queryKey: ['orders', tableFilter || 'none'],
+    queryFn: () => fetcher(`${baseUrl}/get-orders-by-table/${tableFilter}`),
+    enabled: isWaiter && !!tableFilter,
+  });
+
+  const allOrdersQuery = useInfiniteQuery({
+    queryKey: ['orders', 'all', tableFilter, startDate],
+    queryFn: ({ pageParam }) => fetchOrdersPage(pageParam),
+    initialPageParam: null,
+    getNextPageParam: lastPage => lastPage.nextCursor || undefined,
+    enabled: !isWaiter,
   });
 
+  const ordersQuery = isWaiter ? tableOrdersQuery : allOrdersQuery;
+  const ordersTotal = isWaiter ? null : allOrdersQuery.data?.pages[0]?.total ?? null;
+
   const dishesQuery = useQuery({
     queryKey: ['dishes'],
     queryFn: () => fetcher(`${API_BASE}/dish/get-all`),
@@ -119,7 +154,7 @@ const OrdersPage = () => {
       : `Ошибка загрузки заказов: ${ordersQuery.error?.message || ''}`
     : null;
 
-  const ordersRaw = ordersQuery.data || [];
+  const ordersRaw = isWaiter ? tableOrdersQuery.data || [] : allOrdersQuery.data?.pages.flatMap(p => p.orders) || [];
   const orders = Array.isArray(ordersRaw) ? ordersRaw : ordersRaw.orders || [];
   const normalizedOrders = orders.map(o => ({
     id: o.id,
@@ -133,10 +168,13 @@ const OrdersPage = () => {
     time: o.time,
   }));
 
+  // updater получает массив заказов: список стола целиком или каждую загруженную страницу
   const updateOrdersCache = updater => {
-    queryClient.setQueryData(['orders'], old => {
-      const current = Array.isArray(old) ? old : [];
-      return updater(current);
+    queryClient.setQueriesData({ queryKey: ['orders'] }, old => {
+      if (old?.pages) {
+        return { ...old, pages: old.pages.map(page => ({ ...page, orders: updater(page.orders) })) };
+      }
+      return updater(Array.isArray(old) ? old : []);
     });
   };
 
@@ -167,17 +205,12 @@ const OrdersPage = () => {
 
   const handleDelete = orderId => {
     if (!canDelete) return;
-    const deletedOrder = normalizedOrders.find(o => o.id === orderId);
     setDeleteError('');
     updateOrdersCache(prev => prev.filter(o => o.id !== orderId));
     deleteMutation.mutate(orderId, {
       onError: err => {
         setDeleteError(normalizeErrorMessage(err.message) || 'Не удалось удалить заказ');
-        if (deletedOrder) {
-          updateOrdersCache(prev => [...prev, deletedOrder]);
-        } else {
-          ordersQuery.refetch();
-        }
+        queryClient.invalidateQueries({ queryKey: ['orders'] });
       },
     });
   };
@@ -428,6 +461,23 @@ const OrdersPage = () => {
         </table>
         {filteredOrders.length === 0 && <div style={{ padding: 12 }}>Заказов пока нет.</div>}
       </div>
+      {!isWaiter && (
+        <div style={{ marginTop: 12, display: 'flex', gap: 12, alignItems: 'center' }}>
+          {ordersTotal != null && (
+            <span style={{ fontSize: 14, color: '#666' }}>
+              Показано {orders.length} из {ordersTotal}
+            </span>
+          )}
+          {allOrdersQuery.hasNextPage && (
+            <button
+              onClick={() => allOrdersQuery.fetchNextPage()}
+              disabled={allOrdersQuery.isFetchingNextPage}
+            >
+              {allOrdersQuery.isFetchingNextPage ? 'Загрузка...' : 'Загрузить еще'}
+            </button>
+          )}
+        </div>
+      )}
 
       {createModal && (
         <div
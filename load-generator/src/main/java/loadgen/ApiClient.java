@@ -0,0 +1,164 @@
+package loadgen;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// вызовы REST API back; каждый запрос замеряется и попадает в статистику своего эндпоинта
+public class ApiClient {
+
+    static final String LOGIN = "POST /auth/login";
+    static final String MAKE_RECORD = "POST /journal/make-record";
+    static final String ORDER_CREATE = "POST /order/create";
+    static final String ORDER_CHANGE_STATUS = "POST /order/change-status";
+    static final String BILL_CREATE = "POST /bills/create";
+    static final String BILL_PAY = "POST /bills/pay";
+    static final String FEEDBACK_CREATE = "POST /feedback/create";
+
+    static final List<String> ENDPOINTS = List.of(
+            LOGIN, MAKE_RECORD, ORDER_CREATE, ORDER_CHANGE_STATUS, BILL_CREATE, BILL_PAY, FEEDBACK_CREATE
+    );
+
+    private static final Pattern ORDER_ID = Pattern.compile("\"orderId\"\\s*:\\s*(\\d+)");
+    private static final Pattern BILL_ID = Pattern.compile("\"billId\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    ApiClient(Config config) {
+        this.baseUrl = config.baseUrl;
+        this.requestTimeout = Duration.ofMillis(config.requestTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    // сервер отдает токен строкой, в зависимости от провайдера JSON она может прийти в кавычках
+    String login(Config.Account account) {
+        String body = "{\"id\":" + account.id + ",\"code\":" + quote(account.code) + "}";
+        String token = call(LOGIN, "/auth/login", null, body).trim();
+        if (token.length() >= 2 && token.startsWith("\"") && token.endsWith("\"")) {
+            token = token.substring(1, token.length() - 1);
+        }
+        return token;
+    }
+
+    void makeRecord(String token, Long employeeId, String tableNumber, String tableStatus) {
+        String body = "{\"employeeId\":" + employeeId
+                + ",\"tableNumber\":" + quote(tableNumber)
+                + ",\"tableStatus\":" + quote(tableStatus) + "}";
+        call(MAKE_RECORD, "/journal/make-record", token, body);
+    }
+
+    long createOrder(String token, String tableNumber, Long dishId, int guestNumber) {
+        String body = "{\"tableNumber\":" + quote(tableNumber)
+                + ",\"dishId\":" + dishId
+                + ",\"guestNumber\":" + guestNumber + "}";
+        return extractId(ORDER_ID, call(ORDER_CREATE, "/order/create", token, body));
+    }
+
+    void changeOrderStatus(String token, long orderId, String status) {
+        call(ORDER_CHANGE_STATUS, "/order/change-status/" + orderId + "?status=" + status, token, "");
+    }
+
+    long createBill(String token, String tableNumber, int guestNumber, boolean birthday) {
+        String body = "{\"tableNumber\":" + quote(tableNumber)
+                + ",\"guestNumber\":" + guestNumber
+                + ",\"birthday\":" + birthday + "}";
+        return extractId(BILL_ID, call(BILL_CREATE, "/bills/create", token, body));
+    }
+
+    void payBill(String token, long billId) {
+        call(BILL_PAY, "/bills/pay/" + billId, token, "");
+    }
+
+    void createFeedback(String tableNumber, int rating, String comment, BigDecimal tipAmount) {
+        String body = "{\"tableNumber\":" + quote(tableNumber)
+                + ",\"rating\":" + rating
+                + ",\"comment\":" + quote(comment)
+                + ",\"tipAmount\":" + tipAmount.toPlainString() + "}";
+        call(FEEDBACK_CREATE, "/feedback/create", null, body);
+    }
+
+    Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    private String call(String endpoint, String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            stats.get(endpoint).record(System.nanoTime() - start, true);
+            throw new ApiException(endpoint + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(endpoint + ": прервано", e);
+        }
+        int status = response.statusCode();
+        boolean error = status < 200 || status >= 300;
+        stats.get(endpoint).record(System.nanoTime() - start, error);
+        if (error) {
+            throw new ApiException(endpoint + " -> " + status + ": " + response.body(), null);
+        }
+        return response.body();
+    }
+
+    private static long extractId(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new ApiException("В ответе нет id: " + body, null);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    static class ApiException extends RuntimeException {
+        ApiException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// параметры прогона: аргументы вида --key=value, любое значение можно задать и через -Dkey=value
+public class Config {
+
+    final String baseUrl;
+    final List<Account> waiters;
+    final List<Account> cooks;
+    final int tables;
+    final List<Long> dishIds;
+    final int durationSec;
+    final int maxGuests;
+    final int maxOrdersPerGuest;
+    final long thinkTimeMs;
+    final long cookTimeMs;
+    final long orderTimeoutMs;
+    final long requestTimeoutMs;
+    final int maxErrorsPerTable;
+
+    private Config(Properties props) {
+        baseUrl = trimSlash(get(props, "baseUrl", "http://localhost:8080/back-1/api"));
+        waiters = parseAccounts(get(props, "waiters", ""));
+        cooks = parseAccounts(get(props, "cooks", ""));
+        tables = Integer.parseInt(get(props, "tables", "10"));
+        dishIds = parseIds(get(props, "dishes", "1"));
+        durationSec = Integer.parseInt(get(props, "durationSec", "60"));
+        maxGuests = Integer.parseInt(get(props, "maxGuests", "4"));
+        maxOrdersPerGuest = Integer.parseInt(get(props, "maxOrdersPerGuest", "2"));
+        thinkTimeMs = Long.parseLong(get(props, "thinkTimeMs", "200"));
+        cookTimeMs = Long.parseLong(get(props, "cookTimeMs", "100"));
+        orderTimeoutMs = Long.parseLong(get(props, "orderTimeoutMs", "60000"));
+        requestTimeoutMs = Long.parseLong(get(props, "requestTimeoutMs", "30000"));
+        maxErrorsPerTable = Integer.parseInt(get(props, "maxErrorsPerTable", "5"));
+
+        if (waiters.isEmpty()) {
+            throw new IllegalArgumentException("нужен хотя бы один официант: --waiters=id:code,...");
+        }
+        if (cooks.isEmpty()) {
+            throw new IllegalArgumentException("нужен хотя бы один повар: --cooks=id:code,...");
+        }
+        if (tables < 1 || tables > 10) {
+            throw new IllegalArgumentException("tables должен быть от 1 до 10 (столы T1..T10)");
+        }
+        if (dishIds.isEmpty()) {
+            throw new IllegalArgumentException("нужен хотя бы один id блюда: --dishes=1,2,3");
+        }
+        if (maxGuests < 1 || maxOrdersPerGuest < 1) {
+            throw new IllegalArgumentException("maxGuests и maxOrdersPerGuest должны быть больше 0");
+        }
+    }
+
+    static Config fromArgs(String[] args) {
+        Properties props = new Properties();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            props.setProperty(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new Config(props);
+    }
+
+    private static String get(Properties props, String key, String defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            value = System.getProperty(key);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static List<Account> parseAccounts(String value) {
+        List<Account> accounts = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int colon = part.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Аккаунт должен быть в виде id:code - " + part);
+            }
+            accounts.add(new Account(Long.parseLong(part.substring(0, colon).trim()), part.substring(colon + 1).trim()));
+        }
+        return accounts;
+    }
+
+    private static List<Long> parseIds(String value) {
+        List<Long> ids = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) {
+                ids.add(Long.parseLong(part.trim()));
+            }
+        }
+        return ids;
+    }
+
+    static class Account {
+        final Long id;
+        final String code;
+
+        Account(Long id, String code) {
+            this.id = id;
+            this.code = code;
+        }
+    }
+}
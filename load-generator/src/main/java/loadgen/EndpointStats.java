@@ -0,0 +1,54 @@
+package loadgen;
+
+import java.util.Arrays;
+
+// задержки одного эндпоинта: храним все замеры, чтобы считать точные перцентили
+public class EndpointStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    static class Snapshot {
+        final long[] sorted;
+        final long errors;
+
+        Snapshot(long[] sorted, long errors) {
+            this.sorted = sorted;
+            this.errors = errors;
+        }
+
+        int count() {
+            return sorted.length;
+        }
+
+        // перцентиль по ближайшему рангу, в миллисекундах
+        double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(sorted.length * percentile / 100.0);
+            return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+        }
+
+        double maxMillis() {
+            return sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0;
+        }
+    }
+}
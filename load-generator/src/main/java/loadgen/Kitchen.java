@@ -0,0 +1,71 @@
+package loadgen;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// кухня: официанты кладут созданные заказы в общую очередь, повара забирают их,
+// "готовят" cookTimeMs и переводят в cooked
+public class Kitchen {
+
+    private final BlockingQueue<Ticket> queue = new LinkedBlockingQueue<>();
+    private final ApiClient apiClient;
+    private final long cookTimeMs;
+    private volatile boolean closed;
+
+    Kitchen(ApiClient apiClient, long cookTimeMs) {
+        this.apiClient = apiClient;
+        this.cookTimeMs = cookTimeMs;
+    }
+
+    // latch отпускается по каждому заказу, даже если повару не удалось его отметить,
+    // чтобы официант не ждал до таймаута
+    void submit(List<Long> orderIds, CountDownLatch latch) {
+        for (Long orderId : orderIds) {
+            queue.add(new Ticket(orderId, latch));
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    Runnable cook(String token) {
+        return () -> {
+            while (!closed || !queue.isEmpty()) {
+                Ticket ticket;
+                try {
+                    ticket = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (ticket == null) {
+                        continue;
+                    }
+                    if (cookTimeMs > 0) {
+                        Thread.sleep(cookTimeMs);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    apiClient.changeOrderStatus(token, ticket.orderId, "cooked");
+                } catch (ApiClient.ApiException e) {
+                    System.err.println("[повар] заказ " + ticket.orderId + ": " + e.getMessage());
+                } finally {
+                    ticket.latch.countDown();
+                }
+            }
+        };
+    }
+
+    private static class Ticket {
+        final long orderId;
+        final CountDownLatch latch;
+
+        Ticket(long orderId, CountDownLatch latch) {
+            this.orderId = orderId;
+            this.latch = latch;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// нагрузочный прогон "вечер пятницы": официанты ведут столы через весь цикл, повара готовят заказы,
+// в конце печатаются пропускная способность и p50/p99 по каждому эндпоинту
+public class LoadGenerator {
+
+    public static void main(String[] args) throws InterruptedException {
+        Config config;
+        try {
+            config = Config.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Пример: java -jar load-generator.jar --waiters=2:1234,3:5678 --cooks=4:1111 "
+                    + "--tables=10 --dishes=1,2,3 --durationSec=120");
+            System.exit(2);
+            return;
+        }
+
+        ApiClient apiClient = new ApiClient(config);
+        List<String> waiterTokens = new ArrayList<>();
+        for (Config.Account waiter : config.waiters) {
+            waiterTokens.add(apiClient.login(waiter));
+        }
+        List<String> cookTokens = new ArrayList<>();
+        for (Config.Account cook : config.cooks) {
+            cookTokens.add(apiClient.login(cook));
+        }
+
+        System.out.printf("Прогон %d с: официантов %d, поваров %d, столов %d, %s%n",
+                config.durationSec, config.waiters.size(), config.cooks.size(), config.tables, config.baseUrl);
+
+        Kitchen kitchen = new Kitchen(apiClient, config.cookTimeMs);
+        List<Thread> cooks = new ArrayList<>();
+        for (int i = 0; i < cookTokens.size(); i++) {
+            cooks.add(start("cook-" + config.cooks.get(i).id, kitchen.cook(cookTokens.get(i))));
+        }
+
+        LongAdder visits = new LongAdder();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(config.durationSec);
+        List<Thread> tables = new ArrayList<>();
+        for (int i = 0; i < config.tables; i++) {
+            // столы раздаются официантам по кругу
+            int waiterIndex = i % config.waiters.size();
+            String tableNumber = "T" + (i + 1);
+            tables.add(start("table-" + tableNumber, new TableSimulator(config, apiClient, kitchen, tableNumber,
+                    config.waiters.get(waiterIndex), waiterTokens.get(waiterIndex), deadlineNanos, visits)));
+        }
+
+        // после дедлайна начатые визиты доигрываются, чтобы столы остались свободными
+        for (Thread table : tables) {
+            table.join();
+        }
+        kitchen.close();
+        for (Thread cook : cooks) {
+            cook.join();
+        }
+        double elapsedSec = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+
+        printReport(apiClient, visits.sum(), elapsedSec);
+    }
+
+    private static Thread start(String name, Runnable runnable) {
+        Thread thread = new Thread(runnable, name);
+        thread.start();
+        return thread;
+    }
+
+    private static void printReport(ApiClient apiClient, long visits, double elapsedSec) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Время: %.1f с, завершенных визитов: %d (%.2f/с)%n",
+                elapsedSec, visits, visits / elapsedSec);
+        System.out.printf(Locale.ROOT, "%-28s %8s %7s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+
+        long total = 0;
+        long totalErrors = 0;
+        for (String endpoint : ApiClient.ENDPOINTS) {
+            EndpointStats.Snapshot snapshot = apiClient.getStats().get(endpoint).snapshot();
+            total += snapshot.count();
+            totalErrors += snapshot.errors;
+            System.out.printf(Locale.ROOT, "%-28s %8d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint,
+                    snapshot.count(),
+                    snapshot.errors,
+                    snapshot.count() / elapsedSec,
+                    snapshot.percentileMillis(50),
+                    snapshot.percentileMillis(99),
+                    snapshot.maxMillis());
+        }
+        System.out.printf(Locale.ROOT, "%-28s %8d %7d %9.2f%n", "total", total, totalErrors, total / elapsedSec);
+    }
+}
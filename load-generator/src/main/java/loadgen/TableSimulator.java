@@ -0,0 +1,121 @@
+package loadgen;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// один стол: гости приходят друг за другом, каждый визит проходит весь цикл
+// free -> occupied -> (заказы, кухня) -> not_paid -> paid -> free
+public class TableSimulator implements Runnable {
+
+    private static final String[] COMMENTS = {
+            "Все понравилось", "Долго ждали заказ", "Вкусно, придем еще", "Официант молодец", ""
+    };
+
+    private final Config config;
+    private final ApiClient apiClient;
+    private final Kitchen kitchen;
+    private final String tableNumber;
+    private final Config.Account waiter;
+    private final String token;
+    private final long deadlineNanos;
+    private final LongAdder visits;
+
+    TableSimulator(Config config, ApiClient apiClient, Kitchen kitchen, String tableNumber,
+                   Config.Account waiter, String token, long deadlineNanos, LongAdder visits) {
+        this.config = config;
+        this.apiClient = apiClient;
+        this.kitchen = kitchen;
+        this.tableNumber = tableNumber;
+        this.waiter = waiter;
+        this.token = token;
+        this.deadlineNanos = deadlineNanos;
+        this.visits = visits;
+    }
+
+    @Override
+    public void run() {
+        // стол мог остаться оплаченным с прошлого прогона или еще не иметь записей в журнале
+        freeQuietly();
+
+        int consecutiveErrors = 0;
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            try {
+                visit();
+                visits.increment();
+                consecutiveErrors = 0;
+            } catch (ApiClient.ApiException e) {
+                System.err.println("[" + tableNumber + "] " + e.getMessage());
+                if (++consecutiveErrors >= config.maxErrorsPerTable) {
+                    System.err.println("[" + tableNumber + "] слишком много ошибок подряд, стол выходит из прогона");
+                    return;
+                }
+                freeQuietly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void visit() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        apiClient.makeRecord(token, waiter.id, tableNumber, "occupied");
+        think();
+
+        int guests = random.nextInt(1, config.maxGuests + 1);
+        List<Long> orderIds = new ArrayList<>();
+        for (int guest = 1; guest <= guests; guest++) {
+            int orders = random.nextInt(1, config.maxOrdersPerGuest + 1);
+            for (int i = 0; i < orders; i++) {
+                Long dishId = config.dishIds.get(random.nextInt(config.dishIds.size()));
+                orderIds.add(apiClient.createOrder(token, tableNumber, dishId, guest));
+            }
+        }
+
+        CountDownLatch cooked = new CountDownLatch(orderIds.size());
+        kitchen.submit(orderIds, cooked);
+        if (!cooked.await(config.orderTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new ApiClient.ApiException("кухня не успела за " + config.orderTimeoutMs + " мс", null);
+        }
+        for (Long orderId : orderIds) {
+            apiClient.changeOrderStatus(token, orderId, "delivered");
+        }
+        think();
+
+        List<Long> billIds = new ArrayList<>();
+        for (int guest = 1; guest <= guests; guest++) {
+            billIds.add(apiClient.createBill(token, tableNumber, guest, false));
+        }
+        think();
+
+        for (Long billId : billIds) {
+            apiClient.payBill(token, billId);
+        }
+
+        BigDecimal tip = BigDecimal.valueOf(random.nextInt(0, 50_001), 2);
+        apiClient.createFeedback(tableNumber, random.nextInt(1, 6), COMMENTS[random.nextInt(COMMENTS.length)], tip);
+
+        apiClient.makeRecord(token, waiter.id, tableNumber, "free");
+        think();
+    }
+
+    private void think() throws InterruptedException {
+        if (config.thinkTimeMs > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(config.thinkTimeMs + 1));
+        }
+    }
+
+    private void freeQuietly() {
+        try {
+            apiClient.makeRecord(token, waiter.id, tableNumber, "free");
+        } catch (ApiClient.ApiException ignored) {
+            // стол уже свободен или его нельзя освободить - это выяснится на следующем визите
+        }
+    }
+}